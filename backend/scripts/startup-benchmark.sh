@@ -0,0 +1,81 @@
+#!/usr/bin/env bash
+# Compares startup time and first-request latency of the default jar against the
+# faststart build. Needs the database from application.properties to be reachable.
+#
+#   mvn -Pfaststart package -DskipTests
+#   scripts/startup-benchmark.sh [runs] [port]
+set -euo pipefail
+
+RUNS=${1:-5}
+PORT=${2:-8080}
+URL="http://localhost:${PORT}/api/banks"
+BACKEND_DIR="$(cd "$(dirname "$0")/.." && pwd)"
+TARGET="${BACKEND_DIR}/target"
+FASTSTART="${TARGET}/faststart"
+JAR=$(ls "${TARGET}"/loan-app-*.jar | grep -v -- '-app.jar' | head -1)
+APP_JAR=$(ls "${FASTSTART}"/loan-app-*-app.jar | head -1)
+
+if [[ ! -f "${FASTSTART}/application.jsa" ]]; then
+  echo "No CDS archive found; run 'mvn -Pfaststart package' first" >&2
+  exit 1
+fi
+
+now_ms() { date +%s%3N; }
+
+# Starts the app, waits for the first successful request and prints
+# "<started-in-ms> <first-response-ms> <first-request-ms>"
+measure() {
+  local dir=$1; shift
+  local log
+  log=$(mktemp)
+  local start
+  start=$(now_ms)
+  (cd "$dir" && exec java -Dserver.port="${PORT}" "$@") >"$log" 2>&1 &
+  local pid=$!
+
+  until grep -q "Started LoanAppApplication" "$log"; do
+    if ! kill -0 "$pid" 2>/dev/null; then
+      echo "Application exited during startup, see $log" >&2
+      exit 1
+    fi
+    sleep 0.05
+  done
+  local started
+  started=$(( $(now_ms) - start ))
+
+  local before
+  before=$(now_ms)
+  curl -sf -o /dev/null "$URL"
+  local first_request
+  first_request=$(( $(now_ms) - before ))
+
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+  rm -f "$log"
+  echo "$started $(( started + first_request )) $first_request"
+}
+
+median() { sort -n | awk '{ v[NR] = $1 } END { print v[int((NR + 1) / 2)] }'; }
+
+run_mode() {
+  local name=$1; shift
+  local results=()
+  for ((i = 1; i <= RUNS; i++)); do
+    results+=("$(measure "$@")")
+  done
+  local started first_response first_request
+  started=$(printf '%s\n' "${results[@]}" | awk '{ print $1 }' | median)
+  first_response=$(printf '%s\n' "${results[@]}" | awk '{ print $2 }' | median)
+  first_request=$(printf '%s\n' "${results[@]}" | awk '{ print $3 }' | median)
+  printf '%-10s %12s %16s %16s\n' "$name" "$started" "$first_response" "$first_request"
+}
+
+echo "Median of ${RUNS} runs, in milliseconds"
+printf '%-10s %12s %16s %16s\n' "mode" "ready" "first response" "first request"
+run_mode default "$TARGET" -jar "$JAR"
+run_mode faststart "$FASTSTART" \
+  -XX:SharedArchiveFile=application.jsa \
+  -Dspring.aot.enabled=true \
+  -Dspring.profiles.active=faststart \
+  -cp "$(basename "$APP_JAR"):lib/*" \
+  com.visithran.loanapp.LoanAppApplication
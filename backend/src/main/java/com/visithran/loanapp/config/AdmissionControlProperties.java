@@ -0,0 +1,29 @@
+package com.visithran.loanapp.config;
+
+import com.visithran.loanapp.security.EndpointClass;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "loan.admission")
+public class AdmissionControlProperties {
+    
+    private boolean enabled = true;
+    
+    private Map<EndpointClass, Limits> limits = new HashMap<>();
+    
+    @Data
+    public static class Limits {
+        // Sustained requests per second allowed for one client; must be positive
+        private double requestsPerSecond = 1;
+        // Requests a client may send back to back before being throttled
+        private int burst = 5;
+        // Requests of this class in flight across all clients
+        private int maxConcurrent = 20;
+    }
+}
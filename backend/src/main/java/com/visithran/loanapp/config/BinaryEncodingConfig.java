@@ -0,0 +1,28 @@
+package com.visithran.loanapp.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+// Serves application/cbor and application/x-jackson-smile when a client asks for them
+// in Accept (or sends them as Content-Type). JSON is listed first and stays the default.
+// Both mappers come from the same builder as the JSON one, so spring.jackson.* settings
+// such as ISO dates apply and every encoding carries the same schema.
+@Configuration
+public class BinaryEncodingConfig {
+    
+    // Replaces the converter Spring MVC would otherwise build with stock Jackson settings
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+    
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
@@ -0,0 +1,23 @@
+package com.visithran.loanapp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "loan.rollup")
+public class BranchRollupProperties {
+    
+    private boolean enabled = true;
+    
+    // Read by the @Scheduled trigger in BranchRollupService
+    private Duration interval = Duration.ofMinutes(5);
+    
+    private int parallelism = 4;
+    
+    // How far the next run re-reads behind the previous start, covering late commits
+    private Duration safetyLag = Duration.ofMinutes(1);
+}
@@ -0,0 +1,26 @@
+package com.visithran.loanapp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "loan.idempotency")
+public class IdempotencyProperties {
+    
+    // How long a key is remembered and its response replayed
+    private Duration ttl = Duration.ofHours(24);
+    
+    // Also record keys in the database so replays survive restarts and span instances
+    private boolean persistent = true;
+    
+    // A stored claim without a response older than this is treated as abandoned; it also
+    // bounds the transaction the request runs in
+    private Duration claimTimeout = Duration.ofMinutes(1);
+    
+    // Read by the @Scheduled trigger in IdempotencyService
+    private Duration sweepInterval = Duration.ofMinutes(5);
+}
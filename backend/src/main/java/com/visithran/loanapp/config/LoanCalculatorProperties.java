@@ -0,0 +1,29 @@
+package com.visithran.loanapp.config;
+
+import com.visithran.loanapp.entity.LoanApplication;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "loan.calculator")
+public class LoanCalculatorProperties {
+    
+    private int maxBatchSize = 10000;
+    
+    private Map<LoanApplication.LoanType, Product> products = new HashMap<>();
+    
+    @Data
+    public static class Product {
+        // Annual interest rate in percent, e.g. 10.50
+        private BigDecimal annualRate;
+        private int defaultTenureMonths = 12;
+        private int minTenureMonths = 1;
+        private int maxTenureMonths = 360;
+    }
+}
@@ -0,0 +1,43 @@
+package com.visithran.loanapp.config;
+
+import com.visithran.loanapp.entity.LoanApplication;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "loan.triage")
+public class LoanTriageProperties {
+    
+    private boolean enabled = true;
+    
+    // Applications scoring at or below this (and within the approve amount) are approved
+    private int approveMaxScore = 30;
+    
+    // Applications scoring at or above this are rejected
+    private int rejectMinScore = 90;
+    
+    private int openApplicationRisk = 10;
+    
+    private int priorRejectionRisk = 15;
+    
+    private int batchChunkSize = 500;
+    
+    private int batchParallelism = Runtime.getRuntime().availableProcessors();
+    
+    private Map<LoanApplication.LoanType, Limits> limits = new HashMap<>();
+    
+    // Extra risk points keyed by bank branch name
+    private Map<String, Integer> branchRisk = new HashMap<>();
+    
+    @Data
+    public static class Limits {
+        private BigDecimal autoApproveAmount;
+        private BigDecimal autoRejectAmount;
+    }
+}
@@ -0,0 +1,18 @@
+package com.visithran.loanapp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "loan.review-queue")
+public class ReviewQueueProperties {
+    
+    // How long a claimed application stays with an admin before returning to the queue
+    private Duration lease = Duration.ofMinutes(15);
+    
+    private int maxClaim = 50;
+}
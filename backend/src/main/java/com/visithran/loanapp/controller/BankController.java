@@ -1,12 +1,16 @@
 package com.visithran.loanapp.controller;
 
 import com.visithran.loanapp.entity.BankBranch;
+import com.visithran.loanapp.monitoring.QueryBudget;
 import com.visithran.loanapp.repository.BankBranchRepository;
+import com.visithran.loanapp.service.BankBranchBackfillService;
+import com.visithran.loanapp.service.BankBranchDirectory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/banks")
@@ -16,12 +20,20 @@ public class BankController {
     @Autowired
     private BankBranchRepository bankBranchRepository;
     
+    @Autowired
+    private BankBranchDirectory bankBranchDirectory;
+    
+    @Autowired
+    private BankBranchBackfillService bankBranchBackfillService;
+    
+    @QueryBudget(1)
     @GetMapping
     public ResponseEntity<List<BankBranch>> getAllBankBranches() {
         List<BankBranch> branches = bankBranchRepository.findByActiveTrue();
         return ResponseEntity.ok(branches);
     }
     
+    @QueryBudget(1)
     @GetMapping("/{id}")
     public ResponseEntity<BankBranch> getBankBranchById(@PathVariable Long id) {
         BankBranch branch = bankBranchRepository.findById(id)
@@ -29,12 +41,15 @@ public class BankController {
         return ResponseEntity.ok(branch);
     }
     
+    @QueryBudget(2)
     @PostMapping
     public ResponseEntity<BankBranch> createBankBranch(@RequestBody BankBranch bankBranch) {
         BankBranch savedBranch = bankBranchRepository.save(bankBranch);
+        bankBranchDirectory.reload();
         return ResponseEntity.ok(savedBranch);
     }
     
+    @QueryBudget(4)
     @PutMapping("/{id}")
     public ResponseEntity<BankBranch> updateBankBranch(@PathVariable Long id, @RequestBody BankBranch bankBranch) {
         if (!bankBranchRepository.existsById(id)) {
@@ -42,15 +57,29 @@ public class BankController {
         }
         bankBranch.setId(id);
         BankBranch updatedBranch = bankBranchRepository.save(bankBranch);
+        bankBranchDirectory.reload();
         return ResponseEntity.ok(updatedBranch);
     }
     
+    // Applications reference branches by id, so a branch is deactivated rather than removed
+    @QueryBudget(4)
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteBankBranch(@PathVariable Long id) {
-        if (!bankBranchRepository.existsById(id)) {
-            throw new RuntimeException("Bank branch not found");
-        }
-        bankBranchRepository.deleteById(id);
+        BankBranch branch = bankBranchRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Bank branch not found"));
+        branch.setActive(false);
+        bankBranchRepository.save(branch);
+        bankBranchDirectory.reload();
         return ResponseEntity.noContent().build();
     }
+    
+    // Links existing loan applications to branches by id, matching on branch name
+    @QueryBudget(QueryBudget.UNLIMITED)
+    @PostMapping("/backfill-applications")
+    public ResponseEntity<Map<String, Long>> backfillApplicationBranches(
+            @RequestParam(defaultValue = "1000") int chunkSize,
+            @RequestParam(defaultValue = "50") long pauseMillis) {
+        Map<String, Long> summary = bankBranchBackfillService.backfill(chunkSize, pauseMillis);
+        return ResponseEntity.ok(summary);
+    }
 }
@@ -0,0 +1,36 @@
+package com.visithran.loanapp.controller;
+
+import com.visithran.loanapp.dto.LoanQuoteBatchRequest;
+import com.visithran.loanapp.dto.LoanQuoteRequest;
+import com.visithran.loanapp.dto.LoanQuoteResponse;
+import com.visithran.loanapp.monitoring.QueryBudget;
+import com.visithran.loanapp.service.LoanCalculatorService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/calculator")
+@CrossOrigin(origins = "http://localhost:8081")
+public class CalculatorController {
+    
+    @Autowired
+    private LoanCalculatorService loanCalculatorService;
+    
+    @QueryBudget(0)
+    @PostMapping("/quote")
+    public ResponseEntity<LoanQuoteResponse> quote(@Valid @RequestBody LoanQuoteRequest request) {
+        LoanQuoteResponse response = loanCalculatorService.quote(request);
+        return ResponseEntity.ok(response);
+    }
+    
+    @QueryBudget(0)
+    @PostMapping("/quotes")
+    public ResponseEntity<List<LoanQuoteResponse>> quoteBatch(@Valid @RequestBody LoanQuoteBatchRequest request) {
+        List<LoanQuoteResponse> responses = loanCalculatorService.quoteBatch(request.getQuotes());
+        return ResponseEntity.ok(responses);
+    }
+}
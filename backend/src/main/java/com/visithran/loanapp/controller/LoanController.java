@@ -1,84 +1,202 @@
 package com.visithran.loanapp.controller;
 
+import com.visithran.loanapp.dto.LoanApplicationField;
 import com.visithran.loanapp.dto.LoanApplicationRequest;
 import com.visithran.loanapp.dto.LoanApplicationResponse;
+import com.visithran.loanapp.dto.LoanFilterRequest;
+import com.visithran.loanapp.dto.LoanFilterResponse;
+import com.visithran.loanapp.dto.ReviewClaimResponse;
+import com.visithran.loanapp.dto.ReviewPriority;
+import com.visithran.loanapp.idempotency.IdempotencyService;
+import com.visithran.loanapp.monitoring.QueryBudget;
+import com.visithran.loanapp.repository.LoanApplicationSpecifications;
 import com.visithran.loanapp.service.LoanApplicationService;
+import com.visithran.loanapp.service.LoanTriageService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/loans")
 @CrossOrigin(origins = "http://localhost:8081")
 public class LoanController {
     
+    private static final int MAX_PAGE_SIZE = 100;
+    
     @Autowired
     private LoanApplicationService loanApplicationService;
     
+    @Autowired
+    private LoanTriageService loanTriageService;
+    
+    @Autowired
+    private IdempotencyService idempotencyService;
+    
+    // Writes below take an optional Idempotency-Key; looking up, claiming and completing it adds three statements
+    @QueryBudget(7)
     @PostMapping
     public ResponseEntity<LoanApplicationResponse> submitLoanApplication(
             @Valid @RequestBody LoanApplicationRequest request,
-            @RequestParam String userEmail) {
+            @RequestParam String userEmail,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
         
-        LoanApplicationResponse response = loanApplicationService.submitLoanApplication(request, userEmail);
-        return ResponseEntity.ok(response);
+        return idempotencyService.execute(idempotencyKey, "submit:" + userEmail, request,
+                LoanApplicationResponse.class,
+                () -> loanApplicationService.submitLoanApplication(request, userEmail));
     }
     
+    // The listings below take ?fields=id,status,amount,... to read and return only those properties
+    @QueryBudget(2)
     @GetMapping("/my")
-    public ResponseEntity<List<LoanApplicationResponse>> getMyApplications(
-            @RequestParam String userEmail) {
+    public ResponseEntity<List<?>> getMyApplications(
+            @RequestParam String userEmail,
+            @RequestParam(required = false) String fields) {
         
+        EnumSet<LoanApplicationField> selected = LoanApplicationField.parse(fields);
+        if (selected != null) {
+            return ResponseEntity.ok(loanApplicationService.getUserApplications(userEmail, selected));
+        }
         List<LoanApplicationResponse> applications = loanApplicationService.getUserApplications(userEmail);
         return ResponseEntity.ok(applications);
     }
     
+    @QueryBudget(2)
     @GetMapping
-    public ResponseEntity<Page<LoanApplicationResponse>> getAllApplications(
+    public ResponseEntity<Page<?>> getAllApplications(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
-            @RequestParam(required = false) String search) {
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String fields) {
         
-        Pageable pageable = PageRequest.of(page, size);
+        Pageable pageable = pageRequest(page, size, Sort.unsorted());
+        EnumSet<LoanApplicationField> selected = LoanApplicationField.parse(fields);
+        if (selected != null) {
+            return ResponseEntity.ok(loanApplicationService.getAllApplications(pageable, search, selected));
+        }
         Page<LoanApplicationResponse> applications = loanApplicationService.getAllApplications(pageable, search);
         return ResponseEntity.ok(applications);
     }
     
-    @PutMapping("/{id}/approve")
-    public ResponseEntity<LoanApplicationResponse> approveLoan(@PathVariable Long id) {
-        LoanApplicationResponse response = loanApplicationService.approveLoan(id);
+    // Page plus count plus one grouped query per facet
+    @QueryBudget(6)
+    @GetMapping("/filter")
+    public ResponseEntity<LoanFilterResponse> filterApplications(
+            @ModelAttribute LoanFilterRequest filter,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        
+        Pageable pageable = pageRequest(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
+        LoanFilterResponse response = loanApplicationService.filterApplications(filter, pageable);
         return ResponseEntity.ok(response);
     }
     
+    // Decisions on a claimed application need the lease holder's adminEmail, which adds one lookup
+    @QueryBudget(7)
+    @PutMapping("/{id}/approve")
+    public ResponseEntity<LoanApplicationResponse> approveLoan(
+            @PathVariable Long id,
+            @RequestParam(required = false) String adminEmail,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return idempotencyService.execute(idempotencyKey, "approve:" + id, id,
+                LoanApplicationResponse.class,
+                () -> loanApplicationService.approveLoan(id, adminEmail));
+    }
+    
+    @QueryBudget(7)
     @PutMapping("/{id}/reject")
     public ResponseEntity<LoanApplicationResponse> rejectLoan(
             @PathVariable Long id,
-            @RequestParam String rejectionReason) {
-        LoanApplicationResponse response = loanApplicationService.rejectLoan(id, rejectionReason);
-        return ResponseEntity.ok(response);
+            @RequestParam String rejectionReason,
+            @RequestParam(required = false) String adminEmail,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return idempotencyService.execute(idempotencyKey, "reject:" + id, rejectionReason,
+                LoanApplicationResponse.class,
+                () -> loanApplicationService.rejectLoan(id, rejectionReason, adminEmail));
     }
     
+    @QueryBudget(4)
     @PutMapping("/{id}/view")
-    public ResponseEntity<LoanApplicationResponse> markAsViewed(@PathVariable Long id) {
-        LoanApplicationResponse response = loanApplicationService.markAsViewed(id);
+    public ResponseEntity<LoanApplicationResponse> markAsViewed(
+            @PathVariable Long id,
+            @RequestParam(required = false) String adminEmail) {
+        LoanApplicationResponse response = loanApplicationService.markAsViewed(id, adminEmail);
         return ResponseEntity.ok(response);
     }
     
+    @QueryBudget(1)
     @GetMapping("/bin")
     public ResponseEntity<List<LoanApplicationResponse>> getRejectedApplications() {
         List<LoanApplicationResponse> rejectedApplications = loanApplicationService.getRejectedApplications();
         return ResponseEntity.ok(rejectedApplications);
     }
     
+    @QueryBudget(1)
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<LoanApplicationResponse>> getApplicationsByStatus(@PathVariable String status) {
-        List<LoanApplicationResponse> applications = loanApplicationService.getApplicationsByStatus(
-                com.visithran.loanapp.entity.LoanApplication.Status.valueOf(status.toUpperCase()));
+    public ResponseEntity<List<?>> getApplicationsByStatus(
+            @PathVariable String status,
+            @RequestParam(required = false) String fields) {
+        com.visithran.loanapp.entity.LoanApplication.Status parsedStatus = LoanApplicationSpecifications.parseEnum(
+                com.visithran.loanapp.entity.LoanApplication.Status.class, status);
+        EnumSet<LoanApplicationField> selected = LoanApplicationField.parse(fields);
+        if (selected != null) {
+            return ResponseEntity.ok(loanApplicationService.getApplicationsByStatus(parsedStatus, selected));
+        }
+        List<LoanApplicationResponse> applications = loanApplicationService.getApplicationsByStatus(parsedStatus);
         return ResponseEntity.ok(applications);
     }
+    
+    // Admin lookup, locking select, lease update and one fetch of the claimed rows
+    @QueryBudget(4)
+    @PostMapping("/review-queue/claim")
+    public ResponseEntity<ReviewClaimResponse> claimReviews(
+            @RequestParam String adminEmail,
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(defaultValue = "OLDEST") ReviewPriority priority) {
+        ReviewClaimResponse response = loanApplicationService.claimReviews(adminEmail, limit, priority);
+        return ResponseEntity.ok(response);
+    }
+    
+    @QueryBudget(2)
+    @GetMapping("/review-queue/mine")
+    public ResponseEntity<ReviewClaimResponse> getClaimedReviews(@RequestParam String adminEmail) {
+        ReviewClaimResponse response = loanApplicationService.getClaimedReviews(adminEmail);
+        return ResponseEntity.ok(response);
+    }
+    
+    @QueryBudget(3)
+    @PostMapping("/review-queue/renew")
+    public ResponseEntity<ReviewClaimResponse> renewReviews(@RequestParam String adminEmail) {
+        ReviewClaimResponse response = loanApplicationService.renewReviews(adminEmail);
+        return ResponseEntity.ok(response);
+    }
+    
+    @QueryBudget(2)
+    @PostMapping("/review-queue/release")
+    public ResponseEntity<Map<String, Integer>> releaseReviews(
+            @RequestParam String adminEmail,
+            @RequestParam(required = false) List<Long> ids) {
+        int released = loanApplicationService.releaseReviews(adminEmail, ids);
+        return ResponseEntity.ok(Map.of("released", released));
+    }
+    
+    @QueryBudget(QueryBudget.UNLIMITED)
+    @PostMapping("/triage/reevaluate")
+    public ResponseEntity<Map<String, Long>> reevaluateSubmittedBacklog() {
+        Map<String, Long> summary = loanTriageService.reevaluateSubmittedBacklog();
+        return ResponseEntity.ok(summary);
+    }
+    
+    // Out-of-range paging is clamped rather than rejected, so one request can never ask for a whole table
+    private static Pageable pageRequest(int page, int size, Sort sort) {
+        return PageRequest.of(Math.max(0, page), Math.min(Math.max(1, size), MAX_PAGE_SIZE), sort);
+    }
 }
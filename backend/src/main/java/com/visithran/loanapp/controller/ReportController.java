@@ -0,0 +1,54 @@
+package com.visithran.loanapp.controller;
+
+import com.visithran.loanapp.dto.BranchDailyRollupResponse;
+import com.visithran.loanapp.monitoring.QueryBudget;
+import com.visithran.loanapp.service.BankBranchDirectory;
+import com.visithran.loanapp.service.BranchRollupService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/reports")
+@CrossOrigin(origins = "http://localhost:8081")
+public class ReportController {
+    
+    @Autowired
+    private BranchRollupService branchRollupService;
+    
+    @Autowired
+    private BankBranchDirectory bankBranchDirectory;
+    
+    @QueryBudget(2)
+    @GetMapping("/branches/daily")
+    public ResponseEntity<List<BranchDailyRollupResponse>> getBranchDailyRollups(
+            @RequestParam(required = false) Long branchId,
+            @RequestParam(required = false) String branch,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(30);
+        Long bankBranchId = branchId;
+        if (bankBranchId == null && branch != null && !branch.trim().isEmpty()) {
+            bankBranchId = bankBranchDirectory.anyIdOf(branch);
+            if (bankBranchId == null) {
+                throw new RuntimeException("Bank branch not found");
+            }
+        }
+        List<BranchDailyRollupResponse> rollups = branchRollupService.getRollups(bankBranchId, start, end);
+        return ResponseEntity.ok(rollups);
+    }
+    
+    @QueryBudget(QueryBudget.UNLIMITED)
+    @PostMapping("/branches/daily/refresh")
+    public ResponseEntity<Map<String, Long>> refreshBranchDailyRollups() {
+        Map<String, Long> summary = branchRollupService.refreshRollups();
+        return ResponseEntity.ok(summary);
+    }
+}
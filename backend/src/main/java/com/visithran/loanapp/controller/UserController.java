@@ -2,6 +2,7 @@ package com.visithran.loanapp.controller;
 
 import com.visithran.loanapp.dto.UserLoginRequest;
 import com.visithran.loanapp.dto.UserResponse;
+import com.visithran.loanapp.monitoring.QueryBudget;
 import com.visithran.loanapp.service.UserService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,18 +17,21 @@ public class UserController {
     @Autowired
     private UserService userService;
     
+    @QueryBudget(2)
     @PostMapping("/login")
     public ResponseEntity<UserResponse> login(@Valid @RequestBody UserLoginRequest request) {
         UserResponse userResponse = userService.loginOrCreateUser(request);
         return ResponseEntity.ok(userResponse);
     }
     
+    @QueryBudget(1)
     @GetMapping("/{id}")
     public ResponseEntity<UserResponse> getUserById(@PathVariable Long id) {
         UserResponse userResponse = userService.getUserById(id);
         return ResponseEntity.ok(userResponse);
     }
     
+    @QueryBudget(1)
     @GetMapping("/email/{email}")
     public ResponseEntity<UserResponse> getUserByEmail(@PathVariable String email) {
         UserResponse userResponse = userService.getUserByEmail(email);
@@ -35,6 +39,7 @@ public class UserController {
     }
     
     // Endpoint to promote user to ADMIN (for testing purposes)
+    @QueryBudget(2)
     @PutMapping("/{email}/promote-admin")
     public ResponseEntity<UserResponse> promoteToAdmin(@PathVariable String email) {
         UserResponse userResponse = userService.promoteToAdmin(email);
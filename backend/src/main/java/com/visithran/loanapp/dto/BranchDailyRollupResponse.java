@@ -0,0 +1,37 @@
+package com.visithran.loanapp.dto;
+
+import com.visithran.loanapp.entity.BranchDailyRollup;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+
+@Data
+public class BranchDailyRollupResponse {
+    private Long bankBranchId;
+    private String branchName;
+    private LocalDate date;
+    private long applicationCount;
+    private long approvedCount;
+    private long rejectedCount;
+    private BigDecimal approvalRate;
+    private BigDecimal totalAmount;
+    private BigDecimal approvedAmount;
+    
+    public static BranchDailyRollupResponse fromRollup(BranchDailyRollup rollup) {
+        BranchDailyRollupResponse response = new BranchDailyRollupResponse();
+        response.setBankBranchId(rollup.getBankBranchId());
+        response.setBranchName(rollup.getBranchName());
+        response.setDate(rollup.getRollupDate());
+        response.setApplicationCount(rollup.getApplicationCount());
+        response.setApprovedCount(rollup.getApprovedCount());
+        response.setRejectedCount(rollup.getRejectedCount());
+        response.setApprovalRate(rollup.getApplicationCount() == 0 ? BigDecimal.ZERO
+                : BigDecimal.valueOf(rollup.getApprovedCount())
+                        .divide(BigDecimal.valueOf(rollup.getApplicationCount()), 4, RoundingMode.HALF_UP));
+        response.setTotalAmount(rollup.getTotalAmount());
+        response.setApprovedAmount(rollup.getApprovedAmount());
+        return response;
+    }
+}
@@ -0,0 +1,14 @@
+package com.visithran.loanapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetCount {
+    private String value;
+    private String label;
+    private long count;
+}
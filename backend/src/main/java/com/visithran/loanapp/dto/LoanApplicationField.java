@@ -0,0 +1,72 @@
+package com.visithran.loanapp.dto;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+// Properties of LoanApplicationResponse that can be requested with ?fields=.
+// Names match both the JSON property and the LoanApplication attribute.
+public enum LoanApplicationField {
+    ID("id", LoanApplicationResponse::getId),
+    APPLICANT("applicant", LoanApplicationResponse::getApplicant),
+    LOAN_TYPE("loanType", LoanApplicationResponse::getLoanType),
+    AMOUNT("amount", LoanApplicationResponse::getAmount),
+    DESCRIPTION("description", LoanApplicationResponse::getDescription),
+    SELECTED_BANK_BRANCH("selectedBankBranch", LoanApplicationResponse::getSelectedBankBranch),
+    BANK_BRANCH_ID("bankBranchId", LoanApplicationResponse::getBankBranchId),
+    STATUS("status", LoanApplicationResponse::getStatus),
+    REJECTION_REASON("rejectionReason", LoanApplicationResponse::getRejectionReason),
+    RISK_SCORE("riskScore", LoanApplicationResponse::getRiskScore),
+    DECISION_SOURCE("decisionSource", LoanApplicationResponse::getDecisionSource),
+    CREATED_AT("createdAt", LoanApplicationResponse::getCreatedAt);
+    
+    private final String property;
+    private final Function<LoanApplicationResponse, Object> accessor;
+    
+    LoanApplicationField(String property, Function<LoanApplicationResponse, Object> accessor) {
+        this.property = property;
+        this.accessor = accessor;
+    }
+    
+    public String getProperty() {
+        return property;
+    }
+    
+    // Parses a comma separated list such as "id,status,amount"; null when nothing was requested
+    public static EnumSet<LoanApplicationField> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        EnumSet<LoanApplicationField> parsed = EnumSet.noneOf(LoanApplicationField.class);
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            parsed.add(of(trimmed));
+        }
+        return parsed.isEmpty() ? null : parsed;
+    }
+    
+    // Keeps only the requested properties, in declaration order
+    public static Map<String, Object> select(LoanApplicationResponse response, EnumSet<LoanApplicationField> fields) {
+        Map<String, Object> selected = new LinkedHashMap<>();
+        for (LoanApplicationField field : fields) {
+            selected.put(field.property, field.accessor.apply(response));
+        }
+        return selected;
+    }
+    
+    private static LoanApplicationField of(String property) {
+        for (LoanApplicationField field : values()) {
+            if (field.property.equals(property)) {
+                return field;
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown field: " + property);
+    }
+}
@@ -14,8 +14,11 @@ public class LoanApplicationResponse {
     private BigDecimal amount;
     private String description;
     private String selectedBankBranch;
+    private Long bankBranchId;
     private String status;
     private String rejectionReason;
+    private Integer riskScore;
+    private String decisionSource;
     private LocalDateTime createdAt;
     
     public static LoanApplicationResponse fromLoanApplication(LoanApplication application) {
@@ -26,8 +29,11 @@ public class LoanApplicationResponse {
         response.setAmount(application.getAmount());
         response.setDescription(application.getDescription());
         response.setSelectedBankBranch(application.getSelectedBankBranch());
+        response.setBankBranchId(application.getBankBranchId());
         response.setStatus(application.getStatus().name());
         response.setRejectionReason(application.getRejectionReason());
+        response.setRiskScore(application.getRiskScore());
+        response.setDecisionSource(application.getDecisionSource() == null ? null : application.getDecisionSource().name());
         response.setCreatedAt(application.getCreatedAt());
         return response;
     }
@@ -0,0 +1,23 @@
+package com.visithran.loanapp.dto;
+
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+public class LoanFilterRequest {
+    private List<String> status;
+    private List<String> loanType;
+    private List<Long> branchId;
+    private BigDecimal minAmount;
+    private BigDecimal maxAmount;
+    
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate from;
+    
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate to;
+}
@@ -0,0 +1,14 @@
+package com.visithran.loanapp.dto;
+
+import lombok.Data;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+@Data
+public class LoanFilterResponse {
+    private Page<LoanApplicationResponse> applications;
+    private List<FacetCount> statusCounts;
+    private List<FacetCount> loanTypeCounts;
+    private List<FacetCount> branchCounts;
+}
@@ -0,0 +1,14 @@
+package com.visithran.loanapp.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class LoanQuoteBatchRequest {
+    
+    @NotEmpty(message = "At least one quote is required")
+    private List<@Valid LoanQuoteRequest> quotes;
+}
@@ -0,0 +1,34 @@
+package com.visithran.loanapp.dto;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+public class LoanQuoteRequest {
+    
+    @NotBlank(message = "Loan type is required")
+    private String loanType;
+    
+    @NotNull(message = "Amount is required")
+    @DecimalMin(value = "100.0", message = "Amount must be at least 100")
+    @DecimalMax(value = "1000000000000.00", message = "Amount must not exceed 1000000000000")
+    private BigDecimal amount;
+    
+    // Optional overrides; the configured product values are used when absent
+    @DecimalMin(value = "0.0", message = "Annual rate must not be negative")
+    @DecimalMax(value = "50.0", message = "Annual rate must not exceed 50")
+    private BigDecimal annualRate;
+    
+    @Min(value = 1, message = "Tenure must be at least 1 month")
+    @Max(value = 600, message = "Tenure must not exceed 600 months")
+    private Integer tenureMonths;
+    
+    private boolean includeSchedule;
+}
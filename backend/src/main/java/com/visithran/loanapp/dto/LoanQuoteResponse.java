@@ -0,0 +1,27 @@
+package com.visithran.loanapp.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+public class LoanQuoteResponse {
+    private String loanType;
+    private BigDecimal amount;
+    private BigDecimal annualRate;
+    private int tenureMonths;
+    private BigDecimal monthlyPayment;
+    private BigDecimal totalInterest;
+    private BigDecimal totalPayment;
+    private List<Installment> schedule;
+    
+    @Data
+    public static class Installment {
+        private int month;
+        private BigDecimal payment;
+        private BigDecimal principal;
+        private BigDecimal interest;
+        private BigDecimal balance;
+    }
+}
@@ -0,0 +1,16 @@
+package com.visithran.loanapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewClaimResponse {
+    private List<LoanApplicationResponse> applications;
+    private LocalDateTime leaseExpiresAt;
+}
@@ -0,0 +1,19 @@
+package com.visithran.loanapp.dto;
+
+import org.springframework.data.domain.Sort;
+
+// Order in which the review queue hands out applications
+public enum ReviewPriority {
+    OLDEST(Sort.by(Sort.Order.asc("createdAt"), Sort.Order.asc("id"))),
+    LARGEST(Sort.by(Sort.Order.desc("amount"), Sort.Order.asc("createdAt"), Sort.Order.asc("id")));
+    
+    private final Sort sort;
+    
+    ReviewPriority(Sort sort) {
+        this.sort = sort;
+    }
+    
+    public Sort getSort() {
+        return sort;
+    }
+}
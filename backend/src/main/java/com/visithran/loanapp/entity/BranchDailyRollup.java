@@ -0,0 +1,51 @@
+package com.visithran.loanapp.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "branch_daily_rollups", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_branch_daily_rollups_branch_id_date", columnNames = {"bank_branch_id", "rollup_date"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BranchDailyRollup {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "bank_branch_id", nullable = false)
+    private Long bankBranchId;
+    
+    @Column(nullable = false)
+    private String branchName;
+    
+    @Column(nullable = false)
+    private LocalDate rollupDate;
+    
+    @Column(nullable = false)
+    private long applicationCount;
+    
+    @Column(nullable = false)
+    private long approvedCount;
+    
+    @Column(nullable = false)
+    private long rejectedCount;
+    
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalAmount;
+    
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal approvedAmount;
+    
+    @Column(nullable = false)
+    private LocalDateTime refreshedAt;
+}
@@ -0,0 +1,39 @@
+package com.visithran.loanapp.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Durable copy of an idempotency key so replays are recognised after a restart
+// or on another instance. The response is null while the request is in flight.
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+        @Index(name = "idx_idempotency_keys_expires_at", columnList = "expires_at")
+})
+@Data
+@NoArgsConstructor
+public class IdempotencyRecord {
+    
+    // SHA-256 of scope and client key
+    @Id
+    @Column(length = 64)
+    private String id;
+    
+    // SHA-256 of the request payload
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+    
+    @Column(name = "response_status")
+    private Integer responseStatus;
+    
+    @Column(name = "response_body", columnDefinition = "TEXT")
+    private String responseBody;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
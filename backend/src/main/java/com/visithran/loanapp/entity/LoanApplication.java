@@ -2,15 +2,24 @@ package com.visithran.loanapp.entity;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import lombok.ToString;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "loan_applications")
+@Table(name = "loan_applications", indexes = {
+        @Index(name = "idx_loan_applications_updated_at", columnList = "updated_at"),
+        @Index(name = "idx_loan_applications_branch_created", columnList = "bank_branch_id, created_at"),
+        @Index(name = "idx_loan_applications_status_created", columnList = "status, created_at"),
+        @Index(name = "idx_loan_applications_type_created", columnList = "loan_type, created_at"),
+        @Index(name = "idx_loan_applications_status_amount", columnList = "status, amount"),
+        @Index(name = "idx_loan_applications_reviewer", columnList = "reviewer_id, review_lease_expires_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -34,9 +43,20 @@ public class LoanApplication {
     @Column(columnDefinition = "TEXT")
     private String description;
     
+    // Legacy free-text branch name, still written until every row is backfilled
     @Column(nullable = false)
     private String selectedBankBranch;
     
+    @Column(name = "bank_branch_id")
+    private Long bankBranchId;
+    
+    // Read-only mapping so the schema carries the foreign key; write bankBranchId instead
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "bank_branch_id", insertable = false, updatable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private BankBranch bankBranch;
+    
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private Status status;
@@ -44,17 +64,41 @@ public class LoanApplication {
     @Column(columnDefinition = "TEXT")
     private String rejectionReason;
     
+    @Column
+    private Integer riskScore;
+    
+    // Who settled the current status: an admin, or the triage rule that fired
+    @Enumerated(EnumType.STRING)
+    @Column(name = "decision_source")
+    private DecisionSource decisionSource;
+    
+    // Admin currently holding this application in the review queue, until the lease expires
+    @Column(name = "reviewer_id")
+    private Long reviewerId;
+    
+    @Column(name = "review_lease_expires_at")
+    private LocalDateTime reviewLeaseExpiresAt;
+    
     @Column(nullable = false)
     private LocalDateTime createdAt;
     
+    @Column
+    private LocalDateTime updatedAt;
+    
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
+        updatedAt = createdAt;
         if (status == null) {
             status = Status.SUBMITTED;
         }
     }
     
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+    
     public enum LoanType {
         PERSONAL_LOAN, EDUCATION_LOAN, HOUSE_LOAN, JEWEL_LOAN, AUTO_LOAN
     }
@@ -62,4 +106,8 @@ public class LoanApplication {
     public enum Status {
         SUBMITTED, APPROVED, REJECTED, VIEWED
     }
+    
+    public enum DecisionSource {
+        ADMIN, TRIAGE_AMOUNT_LIMIT, TRIAGE_RISK_SCORE, TRIAGE_AUTO_APPROVE
+    }
 }
@@ -0,0 +1,22 @@
+package com.visithran.loanapp.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "rollup_watermarks")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RollupWatermark {
+    
+    @Id
+    private String name;
+    
+    @Column(nullable = false)
+    private LocalDateTime watermark;
+}
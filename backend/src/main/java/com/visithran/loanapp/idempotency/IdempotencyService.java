@@ -0,0 +1,206 @@
+package com.visithran.loanapp.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.visithran.loanapp.config.IdempotencyProperties;
+import com.visithran.loanapp.entity.IdempotencyRecord;
+import com.visithran.loanapp.repository.IdempotencyRecordRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+// Runs a write at most once per Idempotency-Key. The in-memory store answers
+// retries against this instance without a query; the database record catches
+// retries that land after a restart or on another instance. The write and the
+// recorded response commit in one transaction, so a key is never left claimed
+// after its write has committed.
+@Service
+public class IdempotencyService {
+    
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    
+    private static final int MAX_KEY_LENGTH = 255;
+    
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+    
+    @Autowired
+    private IdempotencyProperties properties;
+    
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    private IdempotencyStore store;
+    
+    private TransactionTemplate transactionTemplate;
+    
+    @PostConstruct
+    public void init() {
+        store = new IdempotencyStore();
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        // A write still running when its claim counts as abandoned must not commit after a retry took over
+        transactionTemplate.setTimeout((int) Math.max(1, properties.getClaimTimeout().toSeconds()));
+    }
+    
+    // scope separates endpoints and callers sharing a key; request is what a
+    // replay must match, anything else reusing the key is rejected with 422
+    public <T> ResponseEntity<T> execute(String idempotencyKey, String scope, Object request,
+                                         Class<T> responseType, Supplier<T> action) {
+        if (idempotencyKey == null) {
+            return ResponseEntity.ok(action.get());
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid " + HEADER + " header");
+        }
+        
+        String key = sha256(scope + "\n" + idempotencyKey);
+        String fingerprint = sha256(toJson(request));
+        long ttlNanos = properties.getTtl().toNanos();
+        
+        IdempotencyStore.Entry existing = store.claim(key, fingerprint, System.nanoTime(), ttlNanos);
+        if (existing != null) {
+            return replay(existing.getFingerprint(), fingerprint, existing.isCompleted(),
+                    existing.getStatus(), existing.getBody(), responseType);
+        }
+        
+        if (properties.isPersistent()) {
+            Optional<IdempotencyRecord> recorded = claimRecord(key, fingerprint);
+            if (recorded.isPresent()) {
+                IdempotencyRecord record = recorded.get();
+                if (record.getResponseStatus() != null && record.getFingerprint().equals(fingerprint)) {
+                    store.remember(key, fingerprint, record.getResponseStatus(), record.getResponseBody(),
+                            System.nanoTime() + ttlNanos);
+                } else {
+                    store.release(key);
+                }
+                return replay(record.getFingerprint(), fingerprint, record.getResponseStatus() != null,
+                        record.getResponseStatus() == null ? 0 : record.getResponseStatus(),
+                        record.getResponseBody(), responseType);
+            }
+        }
+        
+        boolean completed = false;
+        try {
+            Outcome<T> outcome = transactionTemplate.execute(status -> {
+                T response = action.get();
+                String body = toJson(response);
+                if (properties.isPersistent()) {
+                    idempotencyRecordRepository.complete(key, HttpStatus.OK.value(), body);
+                }
+                return new Outcome<>(response, body);
+            });
+            store.complete(key, HttpStatus.OK.value(), outcome.body());
+            completed = true;
+            return ResponseEntity.ok(outcome.response());
+        } finally {
+            if (!completed) {
+                release(key);
+            }
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${loan.idempotency.sweep-interval:PT5M}")
+    public void evictExpired() {
+        store.evictExpired(System.nanoTime());
+        if (properties.isPersistent()) {
+            int deleted = idempotencyRecordRepository.deleteExpired(LocalDateTime.now());
+            if (deleted > 0) {
+                log.debug("Deleted {} expired idempotency keys", deleted);
+            }
+        }
+    }
+    
+    // Returns the record already holding the key, or empty once this call owns it
+    private Optional<IdempotencyRecord> claimRecord(String key, String fingerprint) {
+        LocalDateTime now = LocalDateTime.now();
+        for (int attempt = 0; attempt < 2; attempt++) {
+            Optional<IdempotencyRecord> existing = idempotencyRecordRepository.findById(key);
+            if (existing.isPresent() && idempotencyRecordRepository.deleteIfStale(key, now,
+                    now.minus(properties.getClaimTimeout())) == 0) {
+                return existing;
+            }
+            try {
+                idempotencyRecordRepository.insertClaim(key, fingerprint, now, now.plus(properties.getTtl()));
+                return Optional.empty();
+            } catch (DataIntegrityViolationException e) {
+                // Another instance claimed the key between the lookup and the insert
+            }
+        }
+        store.release(key);
+        throw new ResponseStatusException(HttpStatus.CONFLICT, "A request with this " + HEADER + " is in progress");
+    }
+    
+    // Runs on the failure path, so it must not replace the original exception
+    private void release(String key) {
+        store.release(key);
+        if (!properties.isPersistent()) {
+            return;
+        }
+        try {
+            idempotencyRecordRepository.release(key);
+        } catch (RuntimeException e) {
+            log.warn("Could not release idempotency key; it is retried after the claim timeout", e);
+        }
+    }
+    
+    private <T> ResponseEntity<T> replay(String recordedFingerprint, String fingerprint, boolean completed,
+                                         int status, String body, Class<T> responseType) {
+        if (!recordedFingerprint.equals(fingerprint)) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                    HEADER + " was already used for a different request");
+        }
+        if (!completed) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "A request with this " + HEADER + " is in progress");
+        }
+        try {
+            return ResponseEntity.status(status)
+                    .header(REPLAYED_HEADER, "true")
+                    .body(objectMapper.readValue(body, responseType));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to read stored response", e);
+        }
+    }
+    
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize idempotent request", e);
+        }
+    }
+    
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    private record Outcome<T>(T response, String body) {
+    }
+}
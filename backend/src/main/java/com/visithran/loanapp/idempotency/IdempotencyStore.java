@@ -0,0 +1,94 @@
+package com.visithran.loanapp.idempotency;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+// In-process record of idempotency keys seen recently. Claiming a key is a single
+// putIfAbsent, and expired entries are swept without blocking callers.
+public class IdempotencyStore {
+    
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    
+    // Returns null when the caller now owns the key, otherwise the entry that is
+    // already in flight or completed. An expired entry is replaced by the claim.
+    public Entry claim(String key, String fingerprint, long nowNanos, long ttlNanos) {
+        Entry claimed = new Entry(fingerprint, nowNanos + ttlNanos);
+        while (true) {
+            Entry existing = entries.putIfAbsent(key, claimed);
+            if (existing == null) {
+                return null;
+            }
+            if (!existing.isExpired(nowNanos)) {
+                return existing;
+            }
+            if (entries.replace(key, existing, claimed)) {
+                return null;
+            }
+        }
+    }
+    
+    public void complete(String key, int status, String body) {
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            entry.complete(status, body);
+        }
+    }
+    
+    // Stores a response recorded elsewhere (e.g. by another instance) for later replays
+    public void remember(String key, String fingerprint, int status, String body, long expiresAtNanos) {
+        Entry entry = new Entry(fingerprint, expiresAtNanos);
+        entry.complete(status, body);
+        entries.put(key, entry);
+    }
+    
+    // Gives up an in-flight claim so the client can retry after a failure
+    public void release(String key) {
+        entries.computeIfPresent(key, (k, entry) -> entry.isCompleted() ? entry : null);
+    }
+    
+    public void evictExpired(long nowNanos) {
+        entries.values().removeIf(entry -> entry.isExpired(nowNanos));
+    }
+    
+    public int size() {
+        return entries.size();
+    }
+    
+    public static class Entry {
+        
+        private final String fingerprint;
+        private final long expiresAtNanos;
+        // Written once; the body is published by the volatile write of status
+        private String body;
+        private volatile int status;
+        
+        Entry(String fingerprint, long expiresAtNanos) {
+            this.fingerprint = fingerprint;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+        
+        void complete(int status, String body) {
+            this.body = body;
+            this.status = status;
+        }
+        
+        public String getFingerprint() {
+            return fingerprint;
+        }
+        
+        public boolean isCompleted() {
+            return status != 0;
+        }
+        
+        public int getStatus() {
+            return status;
+        }
+        
+        public String getBody() {
+            return body;
+        }
+        
+        boolean isExpired(long nowNanos) {
+            return nowNanos - expiresAtNanos >= 0;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.visithran.loanapp.monitoring;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Maximum number of SQL statements a request handled by the annotated controller
+// method (or every method of the annotated controller) may execute.
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface QueryBudget {
+    
+    int UNLIMITED = -1;
+    
+    int value();
+}
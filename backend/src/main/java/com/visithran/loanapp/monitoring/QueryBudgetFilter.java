@@ -0,0 +1,79 @@
+package com.visithran.loanapp.monitoring;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Counts the SQL statements of an /api request and checks them against the budget the
+// QueryBudgetInterceptor resolved for its handler. Wrapping the dispatch means handlers
+// that throw are checked too. In strict mode (tests) the response is buffered, so a
+// violation fails the request instead of reaching the client as a success.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+public class QueryBudgetFilter extends OncePerRequestFilter {
+    
+    private static final Logger log = LoggerFactory.getLogger(QueryBudgetFilter.class);
+    
+    @Value("${loan.query-budget.fail-on-violation:false}")
+    private boolean failOnViolation;
+    
+    private final AtomicLong violations = new AtomicLong();
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().substring(request.getContextPath().length()).startsWith("/api/");
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ContentCachingResponseWrapper buffered = failOnViolation ? new ContentCachingResponseWrapper(response) : null;
+        String violation;
+        StatementCounter.start();
+        try {
+            filterChain.doFilter(request, buffered != null ? buffered : response);
+        } finally {
+            violation = check(request, StatementCounter.stop());
+        }
+        if (buffered == null) {
+            return;
+        }
+        if (violation != null) {
+            throw new QueryBudgetExceededException(violation);
+        }
+        buffered.copyBodyToResponse();
+    }
+    
+    public long getViolations() {
+        return violations.get();
+    }
+    
+    // Returns the violation message, or null when the request stayed within its budget
+    private String check(HttpServletRequest request, int statements) {
+        Object budgetAttribute = request.getAttribute(QueryBudgetInterceptor.BUDGET_ATTRIBUTE);
+        int budget = budgetAttribute instanceof Integer value ? value : QueryBudget.UNLIMITED;
+        log.debug("{} {} executed {} SQL statements (budget {})", request.getMethod(), request.getRequestURI(),
+                statements, budget);
+        if (budget == QueryBudget.UNLIMITED || statements <= budget) {
+            return null;
+        }
+        
+        violations.incrementAndGet();
+        String message = "SQL statement budget exceeded for " + request.getMethod() + " " + request.getRequestURI()
+                + ": " + statements + " statements, budget " + budget;
+        log.warn(message);
+        return message;
+    }
+}
@@ -0,0 +1,36 @@
+package com.visithran.loanapp.monitoring;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+// Resolves the @QueryBudget of the matched handler for QueryBudgetFilter, which does the
+// counting around the whole dispatch
+@Component
+public class QueryBudgetInterceptor implements HandlerInterceptor {
+    
+    static final String BUDGET_ATTRIBUTE = QueryBudgetInterceptor.class.getName() + ".budget";
+    
+    @Value("${loan.query-budget.default-budget:10}")
+    private int defaultBudget;
+    
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        request.setAttribute(BUDGET_ATTRIBUTE, budgetFor(handler));
+        return true;
+    }
+    
+    int budgetFor(Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return QueryBudget.UNLIMITED;
+        }
+        QueryBudget budget = handlerMethod.getMethodAnnotation(QueryBudget.class);
+        if (budget == null) {
+            budget = handlerMethod.getBeanType().getAnnotation(QueryBudget.class);
+        }
+        return budget != null ? budget.value() : defaultBudget;
+    }
+}
@@ -0,0 +1,33 @@
+package com.visithran.loanapp.monitoring;
+
+// Counts statements prepared on the current thread while a request (or test) is
+// being measured. Work handed to other threads is not attributed to the request.
+public final class StatementCounter {
+    
+    private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+    
+    private StatementCounter() {
+    }
+    
+    public static void start() {
+        COUNT.set(new int[1]);
+    }
+    
+    public static int current() {
+        int[] count = COUNT.get();
+        return count == null ? 0 : count[0];
+    }
+    
+    public static int stop() {
+        int count = current();
+        COUNT.remove();
+        return count;
+    }
+    
+    static void increment() {
+        int[] count = COUNT.get();
+        if (count != null) {
+            count[0]++;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.visithran.loanapp.monitoring;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+public class StatementCountingDataSource extends DelegatingDataSource {
+    
+    public StatementCountingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+    
+    @Override
+    public Connection getConnection() throws SQLException {
+        return countingProxy(super.getConnection());
+    }
+    
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return countingProxy(super.getConnection(username, password));
+    }
+    
+    private static Connection countingProxy(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(StatementCountingDataSource.class.getClassLoader(),
+                new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        // Identity methods answer for the proxy, not the pooled connection behind it
+                        case "equals" -> {
+                            return proxy == args[0];
+                        }
+                        case "hashCode" -> {
+                            return System.identityHashCode(proxy);
+                        }
+                        case "toString" -> {
+                            return "StatementCountingConnection@" + Integer.toHexString(System.identityHashCode(proxy));
+                        }
+                        case "prepareStatement", "prepareCall", "createStatement" -> StatementCounter.increment();
+                        default -> { }
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+}
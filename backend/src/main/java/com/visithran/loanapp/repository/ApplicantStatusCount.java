@@ -0,0 +1,9 @@
+package com.visithran.loanapp.repository;
+
+import com.visithran.loanapp.entity.LoanApplication;
+
+public interface ApplicantStatusCount {
+    Long getApplicantId();
+    LoanApplication.Status getStatus();
+    Long getCount();
+}
@@ -0,0 +1,6 @@
+package com.visithran.loanapp.repository;
+
+public interface BranchBackfillRow {
+    Long getId();
+    String getSelectedBankBranch();
+}
@@ -0,0 +1,19 @@
+package com.visithran.loanapp.repository;
+
+import com.visithran.loanapp.entity.BranchDailyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface BranchDailyRollupRepository extends JpaRepository<BranchDailyRollup, Long> {
+    
+    List<BranchDailyRollup> findByBankBranchIdAndRollupDateIn(Long bankBranchId, Collection<LocalDate> rollupDates);
+    
+    List<BranchDailyRollup> findByBankBranchIdAndRollupDateBetweenOrderByRollupDate(Long bankBranchId, LocalDate from, LocalDate to);
+    
+    List<BranchDailyRollup> findByRollupDateBetweenOrderByBankBranchIdAscRollupDateAsc(LocalDate from, LocalDate to);
+}
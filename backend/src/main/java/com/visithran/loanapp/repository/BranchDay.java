@@ -0,0 +1,8 @@
+package com.visithran.loanapp.repository;
+
+import java.time.LocalDate;
+
+public interface BranchDay {
+    Long getBankBranchId();
+    LocalDate getDay();
+}
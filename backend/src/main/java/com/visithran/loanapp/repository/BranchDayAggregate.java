@@ -0,0 +1,13 @@
+package com.visithran.loanapp.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public interface BranchDayAggregate {
+    LocalDate getDay();
+    Long getApplications();
+    Long getApproved();
+    Long getRejected();
+    BigDecimal getTotalAmount();
+    BigDecimal getApprovedAmount();
+}
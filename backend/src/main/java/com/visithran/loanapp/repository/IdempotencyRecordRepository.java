@@ -0,0 +1,49 @@
+package com.visithran.loanapp.repository;
+
+import com.visithran.loanapp.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+    
+    // Plain insert so a concurrent claim of the same key fails on the primary key
+    @Transactional
+    @Modifying
+    @Query("INSERT INTO IdempotencyRecord (id, fingerprint, createdAt, expiresAt) " +
+           "VALUES (:id, :fingerprint, :createdAt, :expiresAt)")
+    int insertClaim(@Param("id") String id,
+                    @Param("fingerprint") String fingerprint,
+                    @Param("createdAt") LocalDateTime createdAt,
+                    @Param("expiresAt") LocalDateTime expiresAt);
+    
+    @Transactional
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.responseStatus = :status, r.responseBody = :body WHERE r.id = :id")
+    int complete(@Param("id") String id, @Param("status") int status, @Param("body") String body);
+    
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.id = :id AND r.responseStatus IS NULL")
+    int release(@Param("id") String id);
+    
+    // Clears a key that expired, or whose claim was abandoned by a crashed instance
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.id = :id AND (r.expiresAt <= :now " +
+           "OR (r.responseStatus IS NULL AND r.createdAt <= :claimedBefore))")
+    int deleteIfStale(@Param("id") String id,
+                      @Param("now") LocalDateTime now,
+                      @Param("claimedBefore") LocalDateTime claimedBefore);
+    
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,12 @@
+package com.visithran.loanapp.repository;
+
+import com.visithran.loanapp.entity.LoanApplication;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Map;
+
+public interface LoanApplicationFacetRepository {
+    
+    // Counts matching applications grouped by the given facet, keyed by its value
+    Map<Object, Long> countGroupedBy(Specification<LoanApplication> specification, LoanFacet facet);
+}
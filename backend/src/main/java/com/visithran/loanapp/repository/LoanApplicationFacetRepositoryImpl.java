@@ -0,0 +1,42 @@
+package com.visithran.loanapp.repository;
+
+import com.visithran.loanapp.entity.LoanApplication;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class LoanApplicationFacetRepositoryImpl implements LoanApplicationFacetRepository {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public Map<Object, Long> countGroupedBy(Specification<LoanApplication> specification, LoanFacet facet) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<LoanApplication> root = query.from(LoanApplication.class);
+        Path<Object> path = root.get(facet.getAttribute());
+        
+        query.multiselect(path, cb.count(root));
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.groupBy(path);
+        
+        Map<Object, Long> counts = new LinkedHashMap<>();
+        for (Tuple tuple : entityManager.createQuery(query).getResultList()) {
+            counts.put(tuple.get(0), tuple.get(1, Long.class));
+        }
+        return counts;
+    }
+}
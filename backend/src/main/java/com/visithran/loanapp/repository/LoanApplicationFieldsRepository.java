@@ -0,0 +1,18 @@
+package com.visithran.loanapp.repository;
+
+import com.visithran.loanapp.dto.LoanApplicationField;
+import com.visithran.loanapp.dto.LoanApplicationResponse;
+import com.visithran.loanapp.entity.LoanApplication;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Set;
+
+public interface LoanApplicationFieldsRepository {
+    
+    // Reads only the columns behind the requested fields; the others stay null
+    List<LoanApplicationResponse> findFields(Specification<LoanApplication> specification,
+                                             Set<LoanApplicationField> fields,
+                                             Pageable pageable);
+}
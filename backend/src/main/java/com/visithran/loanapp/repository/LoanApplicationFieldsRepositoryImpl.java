@@ -0,0 +1,115 @@
+package com.visithran.loanapp.repository;
+
+import com.visithran.loanapp.dto.LoanApplicationField;
+import com.visithran.loanapp.dto.LoanApplicationResponse;
+import com.visithran.loanapp.dto.UserResponse;
+import com.visithran.loanapp.entity.LoanApplication;
+import com.visithran.loanapp.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+public class LoanApplicationFieldsRepositoryImpl implements LoanApplicationFieldsRepository {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public List<LoanApplicationResponse> findFields(Specification<LoanApplication> specification,
+                                                    Set<LoanApplicationField> fields,
+                                                    Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<LoanApplication> root = query.from(LoanApplication.class);
+        
+        List<Selection<?>> selections = new ArrayList<>();
+        for (LoanApplicationField field : fields) {
+            if (field == LoanApplicationField.APPLICANT) {
+                // The only field that needs the users table
+                Join<LoanApplication, User> applicant = root.join("applicant");
+                selections.add(applicant.get("id").alias("applicantId"));
+                selections.add(applicant.get("name").alias("applicantName"));
+                selections.add(applicant.get("email").alias("applicantEmail"));
+                selections.add(applicant.get("role").alias("applicantRole"));
+            } else {
+                selections.add(root.get(field.getProperty()).alias(field.getProperty()));
+            }
+        }
+        // The branch name is resolved from bankBranchId when the row has one
+        if (fields.contains(LoanApplicationField.SELECTED_BANK_BRANCH)
+                && !fields.contains(LoanApplicationField.BANK_BRANCH_ID)) {
+            selections.add(root.get("bankBranchId").alias("bankBranchId"));
+        }
+        query.multiselect(selections);
+        
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        }
+        
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        
+        List<LoanApplicationResponse> responses = new ArrayList<>();
+        for (Tuple tuple : typedQuery.getResultList()) {
+            responses.add(toResponse(tuple, fields));
+        }
+        return responses;
+    }
+    
+    private static LoanApplicationResponse toResponse(Tuple tuple, Set<LoanApplicationField> fields) {
+        LoanApplicationResponse response = new LoanApplicationResponse();
+        for (LoanApplicationField field : fields) {
+            switch (field) {
+                case ID -> response.setId(tuple.get("id", Long.class));
+                case APPLICANT -> {
+                    UserResponse applicant = new UserResponse();
+                    applicant.setId(tuple.get("applicantId", Long.class));
+                    applicant.setName(tuple.get("applicantName", String.class));
+                    applicant.setEmail(tuple.get("applicantEmail", String.class));
+                    applicant.setRole(tuple.get("applicantRole", User.Role.class).name());
+                    response.setApplicant(applicant);
+                }
+                case LOAN_TYPE -> response.setLoanType(tuple.get("loanType", LoanApplication.LoanType.class).name());
+                case AMOUNT -> response.setAmount(tuple.get("amount", BigDecimal.class));
+                case DESCRIPTION -> response.setDescription(tuple.get("description", String.class));
+                case SELECTED_BANK_BRANCH -> response.setSelectedBankBranch(tuple.get("selectedBankBranch", String.class));
+                case BANK_BRANCH_ID -> response.setBankBranchId(tuple.get("bankBranchId", Long.class));
+                case STATUS -> response.setStatus(tuple.get("status", LoanApplication.Status.class).name());
+                case REJECTION_REASON -> response.setRejectionReason(tuple.get("rejectionReason", String.class));
+                case RISK_SCORE -> response.setRiskScore(tuple.get("riskScore", Integer.class));
+                case DECISION_SOURCE -> {
+                    LoanApplication.DecisionSource source = tuple.get("decisionSource", LoanApplication.DecisionSource.class);
+                    response.setDecisionSource(source == null ? null : source.name());
+                }
+                case CREATED_AT -> response.setCreatedAt(tuple.get("createdAt", LocalDateTime.class));
+            }
+        }
+        if (fields.contains(LoanApplicationField.SELECTED_BANK_BRANCH)) {
+            response.setBankBranchId(tuple.get("bankBranchId", Long.class));
+        }
+        return response;
+    }
+}
@@ -2,27 +2,160 @@ package com.visithran.loanapp.repository;
 
 import com.visithran.loanapp.entity.LoanApplication;
 import com.visithran.loanapp.entity.LoanApplication.Status;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface LoanApplicationRepository extends JpaRepository<LoanApplication, Long> {
+public interface LoanApplicationRepository extends JpaRepository<LoanApplication, Long>,
+        JpaSpecificationExecutor<LoanApplication>, LoanApplicationFacetRepository,
+        LoanApplicationFieldsRepository {
     
     List<LoanApplication> findByApplicantId(Long applicantId);
     
+    @EntityGraph(attributePaths = "applicant")
     Page<LoanApplication> findByStatus(Status status, Pageable pageable);
     
+    @Override
+    @EntityGraph(attributePaths = "applicant")
+    Page<LoanApplication> findAll(Pageable pageable);
+    
+    @Override
+    @EntityGraph(attributePaths = "applicant")
+    Page<LoanApplication> findAll(Specification<LoanApplication> specification, Pageable pageable);
+    
+    @EntityGraph(attributePaths = "applicant")
     @Query("SELECT la FROM LoanApplication la WHERE " +
            "la.applicant.name LIKE %:search% OR " +
            "la.applicant.email LIKE %:search% OR " +
            "CAST(la.id AS string) LIKE %:search%")
     Page<LoanApplication> findBySearchTerm(@Param("search") String search, Pageable pageable);
     
+    @EntityGraph(attributePaths = "applicant")
     List<LoanApplication> findByStatus(Status status);
+    
+    @Query("SELECT la.applicant.id AS applicantId, la.status AS status, COUNT(la) AS count " +
+           "FROM LoanApplication la WHERE la.applicant.id IN :applicantIds " +
+           "GROUP BY la.applicant.id, la.status")
+    List<ApplicantStatusCount> countStatusesByApplicantIds(@Param("applicantIds") Collection<Long> applicantIds);
+    
+    @Query("SELECT la.id AS id, la.applicant.id AS applicantId, la.loanType AS loanType, la.amount AS amount, " +
+           "la.selectedBankBranch AS selectedBankBranch, la.riskScore AS riskScore " +
+           "FROM LoanApplication la WHERE la.status = :status AND la.id > :afterId ORDER BY la.id")
+    List<TriageCandidate> findTriageCandidates(@Param("status") Status status,
+                                               @Param("afterId") Long afterId,
+                                               Pageable pageable);
+    
+    // Rows under a live review lease belong to their reviewer and are left alone
+    @Transactional
+    @Modifying
+    @Query("UPDATE LoanApplication la SET la.status = :status, la.riskScore = :riskScore, " +
+           "la.rejectionReason = :rejectionReason, la.decisionSource = :decisionSource, la.updatedAt = :now " +
+           "WHERE la.id = :id AND la.status = :expectedStatus " +
+           "AND (la.reviewerId IS NULL OR la.reviewLeaseExpiresAt <= :now)")
+    int updateTriageResult(@Param("id") Long id,
+                           @Param("expectedStatus") Status expectedStatus,
+                           @Param("status") Status status,
+                           @Param("riskScore") Integer riskScore,
+                           @Param("rejectionReason") String rejectionReason,
+                           @Param("decisionSource") LoanApplication.DecisionSource decisionSource,
+                           @Param("now") LocalDateTime now);
+    
+    @Query("SELECT DISTINCT la.bankBranchId AS bankBranchId, CAST(la.createdAt AS LocalDate) AS day " +
+           "FROM LoanApplication la WHERE la.updatedAt > :since AND la.bankBranchId IS NOT NULL")
+    List<BranchDay> findBranchDaysUpdatedSince(@Param("since") LocalDateTime since);
+    
+    @Query("SELECT DISTINCT la.bankBranchId AS bankBranchId, CAST(la.createdAt AS LocalDate) AS day " +
+           "FROM LoanApplication la WHERE la.bankBranchId IS NOT NULL")
+    List<BranchDay> findAllBranchDays();
+    
+    @Query("SELECT CAST(la.createdAt AS LocalDate) AS day, COUNT(la) AS applications, " +
+           "SUM(CASE WHEN la.status = com.visithran.loanapp.entity.LoanApplication$Status.APPROVED THEN 1 ELSE 0 END) AS approved, " +
+           "SUM(CASE WHEN la.status = com.visithran.loanapp.entity.LoanApplication$Status.REJECTED THEN 1 ELSE 0 END) AS rejected, " +
+           "SUM(la.amount) AS totalAmount, " +
+           "SUM(CASE WHEN la.status = com.visithran.loanapp.entity.LoanApplication$Status.APPROVED THEN la.amount ELSE 0 END) AS approvedAmount " +
+           "FROM LoanApplication la WHERE la.bankBranchId = :bankBranchId " +
+           "AND la.createdAt >= :from AND la.createdAt < :to " +
+           "GROUP BY CAST(la.createdAt AS LocalDate)")
+    List<BranchDayAggregate> aggregateBranchDays(@Param("bankBranchId") Long bankBranchId,
+                                                 @Param("from") LocalDateTime from,
+                                                 @Param("to") LocalDateTime to);
+    
+    @Query("SELECT la.id AS id, la.selectedBankBranch AS selectedBankBranch FROM LoanApplication la " +
+           "WHERE la.bankBranchId IS NULL AND la.id > :afterId ORDER BY la.id")
+    List<BranchBackfillRow> findBranchBackfillRows(@Param("afterId") Long afterId, Pageable pageable);
+    
+    @Transactional
+    @Modifying
+    @Query("UPDATE LoanApplication la SET la.bankBranchId = :bankBranchId, la.updatedAt = :now " +
+           "WHERE la.id IN :ids AND la.bankBranchId IS NULL")
+    int assignBankBranch(@Param("bankBranchId") Long bankBranchId, @Param("ids") Collection<Long> ids,
+                         @Param("now") LocalDateTime now);
+    
+    // Rows locked by another claimer are skipped rather than waited on (lock timeout -2 is
+    // Hibernate's SKIP LOCKED). The applicant is not fetched so users rows stay unlocked.
+    // Must run inside the transaction that records the claim.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT la.id FROM LoanApplication la WHERE la.status IN :statuses " +
+           "AND (la.reviewerId IS NULL OR la.reviewLeaseExpiresAt <= :now)")
+    List<Long> lockClaimableIds(@Param("statuses") Collection<Status> statuses,
+                                @Param("now") LocalDateTime now,
+                                Pageable pageable);
+    
+    // Read before an admin decision; must run inside the transaction that saves it
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT la FROM LoanApplication la WHERE la.id = :id")
+    Optional<LoanApplication> findByIdForUpdate(@Param("id") Long id);
+    
+    @Modifying
+    @Query("UPDATE LoanApplication la SET la.reviewerId = :reviewerId, la.reviewLeaseExpiresAt = :leaseExpiresAt " +
+           "WHERE la.id IN :ids")
+    int assignReviewer(@Param("ids") Collection<Long> ids,
+                       @Param("reviewerId") Long reviewerId,
+                       @Param("leaseExpiresAt") LocalDateTime leaseExpiresAt);
+    
+    @EntityGraph(attributePaths = "applicant")
+    List<LoanApplication> findByIdIn(Collection<Long> ids, Sort sort);
+    
+    @EntityGraph(attributePaths = "applicant")
+    List<LoanApplication> findByReviewerIdAndReviewLeaseExpiresAtAfter(Long reviewerId, LocalDateTime now, Sort sort);
+    
+    @Transactional
+    @Modifying
+    @Query("UPDATE LoanApplication la SET la.reviewLeaseExpiresAt = :leaseExpiresAt " +
+           "WHERE la.reviewerId = :reviewerId AND la.reviewLeaseExpiresAt > :now")
+    int renewReviewLeases(@Param("reviewerId") Long reviewerId,
+                          @Param("now") LocalDateTime now,
+                          @Param("leaseExpiresAt") LocalDateTime leaseExpiresAt);
+    
+    @Transactional
+    @Modifying
+    @Query("UPDATE LoanApplication la SET la.reviewerId = NULL, la.reviewLeaseExpiresAt = NULL " +
+           "WHERE la.reviewerId = :reviewerId AND la.id IN :ids")
+    int releaseReviews(@Param("reviewerId") Long reviewerId, @Param("ids") Collection<Long> ids);
+    
+    @Transactional
+    @Modifying
+    @Query("UPDATE LoanApplication la SET la.reviewerId = NULL, la.reviewLeaseExpiresAt = NULL " +
+           "WHERE la.reviewerId = :reviewerId")
+    int releaseAllReviews(@Param("reviewerId") Long reviewerId);
 }
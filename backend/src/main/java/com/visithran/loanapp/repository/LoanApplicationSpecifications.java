@@ -0,0 +1,87 @@
+package com.visithran.loanapp.repository;
+
+import com.visithran.loanapp.dto.LoanFilterRequest;
+import com.visithran.loanapp.entity.LoanApplication;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class LoanApplicationSpecifications {
+    
+    private LoanApplicationSpecifications() {
+    }
+    
+    // Adds a predicate only for each criterion that is present, so the database sees one
+    // plain conjunction it can serve from the status/type/branch + created_at indexes
+    public static Specification<LoanApplication> matching(LoanFilterRequest filter) {
+        return matchingExcept(filter, null);
+    }
+    
+    // Same as matching, minus the criterion on the given facet, so that facet's counts show
+    // every value the user could switch to
+    public static Specification<LoanApplication> matchingExcept(LoanFilterRequest filter, LoanFacet facet) {
+        List<LoanApplication.Status> statuses = filter.getStatus() == null ? List.of()
+                : filter.getStatus().stream().map(s -> parseEnum(LoanApplication.Status.class, s)).toList();
+        List<LoanApplication.LoanType> loanTypes = filter.getLoanType() == null ? List.of()
+                : filter.getLoanType().stream().map(t -> parseEnum(LoanApplication.LoanType.class, t)).toList();
+        
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (!statuses.isEmpty() && facet != LoanFacet.STATUS) {
+                predicates.add(root.get(LoanFacet.STATUS.getAttribute()).in(statuses));
+            }
+            if (!loanTypes.isEmpty() && facet != LoanFacet.LOAN_TYPE) {
+                predicates.add(root.get(LoanFacet.LOAN_TYPE.getAttribute()).in(loanTypes));
+            }
+            if (filter.getBranchId() != null && !filter.getBranchId().isEmpty() && facet != LoanFacet.BANK_BRANCH) {
+                predicates.add(root.get(LoanFacet.BANK_BRANCH.getAttribute()).in(filter.getBranchId()));
+            }
+            if (filter.getMinAmount() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("amount"), filter.getMinAmount()));
+            }
+            if (filter.getMaxAmount() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("amount"), filter.getMaxAmount()));
+            }
+            if (filter.getFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("createdAt"), filter.getFrom().atStartOfDay()));
+            }
+            if (filter.getTo() != null) {
+                predicates.add(cb.lessThan(root.get("createdAt"), filter.getTo().plusDays(1).atStartOfDay()));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+    
+    // Same matching rules as LoanApplicationRepository.findBySearchTerm
+    public static Specification<LoanApplication> searchTerm(String search) {
+        return (root, query, cb) -> {
+            String pattern = "%" + search + "%";
+            return cb.or(
+                    cb.like(root.get("applicant").get("name"), pattern),
+                    cb.like(root.get("applicant").get("email"), pattern),
+                    cb.like(root.get("id").as(String.class), pattern));
+        };
+    }
+    
+    public static Specification<LoanApplication> hasApplicant(Long applicantId) {
+        return (root, query, cb) -> cb.equal(root.get("applicant").get("id"), applicantId);
+    }
+    
+    // Case-insensitive; unknown values are the client's mistake, so they answer 400
+    public static <E extends Enum<E>> E parseEnum(Class<E> type, String value) {
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Unknown " + type.getSimpleName() + ": " + value);
+        }
+    }
+    
+    public static Specification<LoanApplication> hasStatus(LoanApplication.Status status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+}
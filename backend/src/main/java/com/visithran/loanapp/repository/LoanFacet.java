@@ -0,0 +1,18 @@
+package com.visithran.loanapp.repository;
+
+// Attributes the loan filter reports counts for
+public enum LoanFacet {
+    STATUS("status"),
+    LOAN_TYPE("loanType"),
+    BANK_BRANCH("bankBranchId");
+    
+    private final String attribute;
+    
+    LoanFacet(String attribute) {
+        this.attribute = attribute;
+    }
+    
+    public String getAttribute() {
+        return attribute;
+    }
+}
@@ -0,0 +1,29 @@
+package com.visithran.loanapp.repository;
+
+import com.visithran.loanapp.entity.RollupWatermark;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface RollupWatermarkRepository extends JpaRepository<RollupWatermark, String> {
+    
+    // Held for a whole rollup run, so runs on different instances take turns
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT w FROM RollupWatermark w WHERE w.name = :name")
+    Optional<RollupWatermark> findByNameForUpdate(@Param("name") String name);
+    
+    // A plain insert, unlike save(), fails rather than overwriting a row another instance created
+    @Transactional
+    @Modifying
+    @Query("INSERT INTO RollupWatermark (name, watermark) VALUES (:name, :watermark)")
+    int insert(@Param("name") String name, @Param("watermark") LocalDateTime watermark);
+}
@@ -0,0 +1,14 @@
+package com.visithran.loanapp.repository;
+
+import com.visithran.loanapp.entity.LoanApplication;
+
+import java.math.BigDecimal;
+
+public interface TriageCandidate {
+    Long getId();
+    Long getApplicantId();
+    LoanApplication.LoanType getLoanType();
+    BigDecimal getAmount();
+    String getSelectedBankBranch();
+    Integer getRiskScore();
+}
@@ -0,0 +1,128 @@
+package com.visithran.loanapp.security;
+
+import com.visithran.loanapp.config.AdmissionControlProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.CorsConfigurationSource;
+import org.springframework.web.cors.CorsProcessor;
+import org.springframework.web.cors.DefaultCorsProcessor;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// Rejects write requests with 429 before they reach a controller, so an abusive
+// client is turned away without touching the connection pool.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class AdmissionControlFilter extends OncePerRequestFilter {
+    
+    @Autowired
+    private AdmissionControlProperties properties;
+    
+    @Autowired
+    private CorsConfigurationSource corsConfigurationSource;
+    
+    private final CorsProcessor corsProcessor = new DefaultCorsProcessor();
+    
+    private final Map<EndpointClass, ClientRateLimiter> rateLimiters = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, Semaphore> concurrencyLimits = new EnumMap<>(EndpointClass.class);
+    
+    @PostConstruct
+    public void init() {
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            AdmissionControlProperties.Limits limits = properties.getLimits()
+                    .getOrDefault(endpointClass, new AdmissionControlProperties.Limits());
+            rateLimiters.put(endpointClass, new ClientRateLimiter(limits.getRequestsPerSecond(), limits.getBurst()));
+            concurrencyLimits.put(endpointClass, new Semaphore(limits.getMaxConcurrent()));
+        }
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled() || classify(request) == null;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        EndpointClass endpointClass = classify(request);
+        
+        long waitNanos = rateLimiters.get(endpointClass).tryAcquire(clientKey(request), System.nanoTime());
+        if (waitNanos > 0) {
+            reject(request, response, Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L)),
+                    "Too many requests");
+            return;
+        }
+        
+        Semaphore permits = concurrencyLimits.get(endpointClass);
+        if (!permits.tryAcquire()) {
+            reject(request, response, 1, "Server busy");
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+    
+    @Scheduled(fixedDelay = 60_000)
+    public void evictIdleClients() {
+        long now = System.nanoTime();
+        rateLimiters.values().forEach(rateLimiter -> rateLimiter.evictIdle(now));
+    }
+    
+    static EndpointClass classify(HttpServletRequest request) {
+        String method = request.getMethod();
+        if ("GET".equals(method) || "OPTIONS".equals(method) || "HEAD".equals(method)) {
+            return null;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (!path.startsWith("/api/")) {
+            return null;
+        }
+        if ("/api/users/login".equals(path)) {
+            return EndpointClass.LOGIN;
+        }
+        if ("POST".equals(method) && "/api/loans".equals(path)) {
+            return EndpointClass.SUBMISSION;
+        }
+        return EndpointClass.WRITE;
+    }
+    
+    // Tomcat's RemoteIpValve has already replaced the address with the client seen by a trusted proxy
+    private static String clientKey(HttpServletRequest request) {
+        return request.getRemoteAddr();
+    }
+    
+    // The rejection never reaches the controller's @CrossOrigin handling, so browsers need the
+    // CORS headers added here to read the status and Retry-After
+    private void reject(HttpServletRequest request, HttpServletResponse response, long retryAfterSeconds,
+                        String message) throws IOException {
+        CorsConfiguration corsConfiguration = corsConfigurationSource.getCorsConfiguration(request);
+        String origin = request.getHeader(HttpHeaders.ORIGIN);
+        if (corsConfiguration != null && origin != null && corsConfiguration.checkOrigin(origin) != null) {
+            corsProcessor.processRequest(corsConfiguration, request, response);
+        }
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":\"" + message + "\"}");
+    }
+}
@@ -0,0 +1,47 @@
+package com.visithran.loanapp.security;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Per-client token bucket implemented as GCRA: each client holds a single
+// "theoretical arrival time" advanced with compare-and-set, so admission never
+// takes a lock.
+public class ClientRateLimiter {
+    
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final ConcurrentHashMap<String, AtomicLong> arrivals = new ConcurrentHashMap<>();
+    
+    public ClientRateLimiter(double requestsPerSecond, int burst) {
+        if (!(requestsPerSecond > 0)) {
+            throw new IllegalArgumentException("requestsPerSecond must be positive: " + requestsPerSecond);
+        }
+        this.intervalNanos = (long) (1_000_000_000L / requestsPerSecond);
+        this.toleranceNanos = intervalNanos * Math.max(0, burst - 1);
+    }
+    
+    // Returns 0 when the request is admitted, otherwise the nanos until it would be
+    public long tryAcquire(String clientKey, long nowNanos) {
+        AtomicLong arrival = arrivals.computeIfAbsent(clientKey, key -> new AtomicLong(nowNanos));
+        while (true) {
+            long current = arrival.get();
+            long start = Math.max(current, nowNanos);
+            long wait = start - nowNanos - toleranceNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (arrival.compareAndSet(current, start + intervalNanos)) {
+                return 0;
+            }
+        }
+    }
+    
+    // Drops clients whose bucket has fully refilled; they behave exactly like new clients
+    public void evictIdle(long nowNanos) {
+        arrivals.values().removeIf(arrival -> arrival.get() <= nowNanos);
+    }
+    
+    public int size() {
+        return arrivals.size();
+    }
+}
@@ -0,0 +1,5 @@
+package com.visithran.loanapp.security;
+
+public enum EndpointClass {
+    LOGIN, SUBMISSION, WRITE
+}
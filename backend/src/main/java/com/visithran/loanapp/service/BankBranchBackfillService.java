@@ -0,0 +1,90 @@
+package com.visithran.loanapp.service;
+
+import com.visithran.loanapp.repository.BranchBackfillRow;
+import com.visithran.loanapp.repository.LoanApplicationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Service
+public class BankBranchBackfillService {
+    
+    @Autowired
+    private LoanApplicationRepository loanApplicationRepository;
+    
+    @Autowired
+    private BankBranchDirectory bankBranchDirectory;
+    
+    private final AtomicBoolean running = new AtomicBoolean();
+    
+    // Copies the free-text branch name of older applications into bank_branch_id.
+    // Rows are read by id in chunks and updated in one short statement per branch
+    // per chunk, so the table stays available while the backfill runs. Names that
+    // match no branch are left unset and counted.
+    public Map<String, Long> backfill(int chunkSize, long pauseMillis) {
+        Map<String, Long> summary = new LinkedHashMap<>();
+        if (!running.compareAndSet(false, true)) {
+            summary.put("skipped", 1L);
+            return summary;
+        }
+        
+        try {
+            bankBranchDirectory.reload();
+            long scanned = 0;
+            long updated = 0;
+            long unmatched = 0;
+            long afterId = 0;
+            List<BranchBackfillRow> chunk;
+            do {
+                chunk = loanApplicationRepository.findBranchBackfillRows(afterId, PageRequest.of(0, chunkSize));
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                afterId = chunk.get(chunk.size() - 1).getId();
+                scanned += chunk.size();
+                
+                Map<Long, List<Long>> idsByBranch = new HashMap<>();
+                for (BranchBackfillRow row : chunk) {
+                    Long bankBranchId = bankBranchDirectory.anyIdOf(row.getSelectedBankBranch());
+                    if (bankBranchId == null) {
+                        unmatched++;
+                    } else {
+                        idsByBranch.computeIfAbsent(bankBranchId, id -> new ArrayList<>()).add(row.getId());
+                    }
+                }
+                for (Map.Entry<Long, List<Long>> entry : idsByBranch.entrySet()) {
+                    updated += loanApplicationRepository.assignBankBranch(entry.getKey(), entry.getValue(),
+                            LocalDateTime.now());
+                }
+                pause(pauseMillis);
+            } while (chunk.size() == chunkSize);
+            
+            summary.put("scanned", scanned);
+            summary.put("updated", updated);
+            summary.put("unmatched", unmatched);
+            return summary;
+        } finally {
+            running.set(false);
+        }
+    }
+    
+    private static void pause(long pauseMillis) {
+        if (pauseMillis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(pauseMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Backfill interrupted");
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.visithran.loanapp.service;
+
+import com.visithran.loanapp.entity.BankBranch;
+import com.visithran.loanapp.repository.BankBranchRepository;
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+// In-memory id <-> name dictionary for bank branches. Names are interned so every
+// response for a branch shares one String instance; the snapshot is immutable and
+// swapped whole on reload, so readers never lock. Other instances change branches
+// too, so the snapshot is refreshed on a schedule and whenever a name lookup misses.
+@Component
+public class BankBranchDirectory {
+    
+    @Autowired
+    private BankBranchRepository bankBranchRepository;
+    
+    private volatile Snapshot snapshot;
+    
+    // Names of inactive branches still resolve, so older applications keep showing them
+    public String nameOf(Long branchId) {
+        return branchId == null ? null : snapshot().namesById.get(branchId);
+    }
+    
+    // Only active branches accept new applications
+    public Long idOf(String branchName) {
+        return lookUp(branchName, true);
+    }
+    
+    // Includes inactive branches, for reports and for linking applications submitted
+    // before a branch was closed
+    public Long anyIdOf(String branchName) {
+        return lookUp(branchName, false);
+    }
+    
+    // Loaded before traffic arrives, so no request pays for the first load
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadAtStartup() {
+        reload();
+    }
+    
+    @Scheduled(fixedDelayString = "${loan.branch-directory.refresh-interval:PT5M}",
+            initialDelayString = "${loan.branch-directory.refresh-interval:PT5M}")
+    public synchronized void reload() {
+        Map<Long, String> namesById = new HashMap<>();
+        Map<String, Long> idsByName = new HashMap<>();
+        Map<String, Long> activeIdsByName = new HashMap<>();
+        for (BankBranch branch : bankBranchRepository.findAll()) {
+            namesById.put(branch.getId(), branch.getBranchName().intern());
+            idsByName.putIfAbsent(normalize(branch.getBranchName()), branch.getId());
+            if (branch.isActive()) {
+                activeIdsByName.putIfAbsent(normalize(branch.getBranchName()), branch.getId());
+            }
+        }
+        snapshot = new Snapshot(Collections.unmodifiableMap(namesById), Collections.unmodifiableMap(idsByName),
+                Collections.unmodifiableMap(activeIdsByName));
+    }
+    
+    private Long lookUp(String branchName, boolean activeOnly) {
+        if (branchName == null) {
+            return null;
+        }
+        String key = normalize(branchName);
+        Snapshot current = snapshot();
+        Long branchId = (activeOnly ? current.activeIdsByName : current.idsByName).get(key);
+        if (branchId == null) {
+            current = reloadIfUnchanged(current);
+            branchId = (activeOnly ? current.activeIdsByName : current.idsByName).get(key);
+        }
+        return branchId;
+    }
+    
+    // Concurrent misses against the same snapshot share one reload
+    private synchronized Snapshot reloadIfUnchanged(Snapshot seen) {
+        if (snapshot == seen) {
+            reload();
+        }
+        return snapshot;
+    }
+    
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            reload();
+            current = snapshot;
+        }
+        return current;
+    }
+    
+    private static String normalize(String branchName) {
+        return branchName.trim().toLowerCase(Locale.ROOT);
+    }
+    
+    @AllArgsConstructor
+    private static class Snapshot {
+        private final Map<Long, String> namesById;
+        private final Map<String, Long> idsByName;
+        private final Map<String, Long> activeIdsByName;
+    }
+}
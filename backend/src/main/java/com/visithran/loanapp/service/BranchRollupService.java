@@ -0,0 +1,184 @@
+package com.visithran.loanapp.service;
+
+import com.visithran.loanapp.config.BranchRollupProperties;
+import com.visithran.loanapp.dto.BranchDailyRollupResponse;
+import com.visithran.loanapp.entity.BranchDailyRollup;
+import com.visithran.loanapp.entity.RollupWatermark;
+import com.visithran.loanapp.repository.BranchDailyRollupRepository;
+import com.visithran.loanapp.repository.BranchDay;
+import com.visithran.loanapp.repository.BranchDayAggregate;
+import com.visithran.loanapp.repository.LoanApplicationRepository;
+import com.visithran.loanapp.repository.RollupWatermarkRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class BranchRollupService {
+    
+    private static final String WATERMARK_NAME = "branch_daily_rollups_by_branch_id";
+    
+    // Watermark of a run that never finished; the next run rebuilds every day
+    private static final LocalDateTime NEVER = LocalDateTime.of(1970, 1, 1, 0, 0);
+    
+    @Autowired
+    private LoanApplicationRepository loanApplicationRepository;
+    
+    @Autowired
+    private BranchDailyRollupRepository branchDailyRollupRepository;
+    
+    @Autowired
+    private RollupWatermarkRepository rollupWatermarkRepository;
+    
+    @Autowired
+    private BranchRollupProperties properties;
+    
+    @Autowired
+    private BankBranchDirectory bankBranchDirectory;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    private final AtomicBoolean running = new AtomicBoolean();
+    
+    @Scheduled(fixedDelayString = "${loan.rollup.interval:PT5M}", initialDelayString = "${loan.rollup.interval:PT5M}")
+    public void scheduledRefresh() {
+        if (properties.isEnabled()) {
+            refreshRollups();
+        }
+    }
+    
+    // Rebuilds only the (branch, day) rollups whose applications changed since the last
+    // watermark. Each day is recomputed from scratch, so re-reading an overlap is harmless.
+    // The watermark row stays locked for the whole run, so a run on another instance waits
+    // and then picks up only what changed meanwhile instead of inserting the same rollups.
+    public Map<String, Long> refreshRollups() {
+        Map<String, Long> summary = new LinkedHashMap<>();
+        if (!running.compareAndSet(false, true)) {
+            summary.put("skipped", 1L);
+            return summary;
+        }
+        
+        try {
+            createWatermarkIfMissing();
+            return transactionTemplate.execute(status -> {
+                RollupWatermark watermark = rollupWatermarkRepository.findByNameForUpdate(WATERMARK_NAME)
+                        .orElseThrow(() -> new RuntimeException("Rollup watermark not found"));
+                LocalDateTime startedAt = LocalDateTime.now();
+                List<BranchDay> touched = NEVER.equals(watermark.getWatermark())
+                        ? loanApplicationRepository.findAllBranchDays()
+                        : loanApplicationRepository.findBranchDaysUpdatedSince(watermark.getWatermark());
+                Map<Long, TreeSet<LocalDate>> daysByBranch = touched.stream()
+                        .collect(Collectors.groupingBy(BranchDay::getBankBranchId,
+                                Collectors.mapping(BranchDay::getDay, Collectors.toCollection(TreeSet::new))));
+                
+                long days = 0;
+                ForkJoinPool pool = new ForkJoinPool(Math.max(1, properties.getParallelism()));
+                try {
+                    List<ForkJoinTask<Integer>> tasks = new ArrayList<>();
+                    daysByBranch.forEach((branch, branchDays) ->
+                            tasks.add(pool.submit(() -> refreshBranch(branch, branchDays))));
+                    for (ForkJoinTask<Integer> task : tasks) {
+                        days += task.join();
+                    }
+                } finally {
+                    pool.shutdown();
+                }
+                
+                watermark.setWatermark(startedAt.minus(properties.getSafetyLag()));
+                summary.put("branches", (long) daysByBranch.size());
+                summary.put("days", days);
+                return summary;
+            });
+        } finally {
+            running.set(false);
+        }
+    }
+    
+    public List<BranchDailyRollupResponse> getRollups(Long bankBranchId, LocalDate from, LocalDate to) {
+        List<BranchDailyRollup> rollups = bankBranchId != null
+                ? branchDailyRollupRepository.findByBankBranchIdAndRollupDateBetweenOrderByRollupDate(bankBranchId, from, to)
+                : branchDailyRollupRepository.findByRollupDateBetweenOrderByBankBranchIdAscRollupDateAsc(from, to);
+        return rollups.stream()
+                .map(BranchDailyRollupResponse::fromRollup)
+                .collect(Collectors.toList());
+    }
+    
+    private int refreshBranch(Long bankBranchId, TreeSet<LocalDate> days) {
+        // One range scan per run of consecutive days, so untouched days in between are never read
+        Map<LocalDate, BranchDayAggregate> aggregates = new HashMap<>();
+        LocalDate runStart = null;
+        LocalDate runEnd = null;
+        for (LocalDate day : days) {
+            if (runStart != null && !day.equals(runEnd.plusDays(1))) {
+                aggregateRun(bankBranchId, runStart, runEnd, aggregates);
+                runStart = null;
+            }
+            if (runStart == null) {
+                runStart = day;
+            }
+            runEnd = day;
+        }
+        aggregateRun(bankBranchId, runStart, runEnd, aggregates);
+        Map<LocalDate, BranchDailyRollup> existing = branchDailyRollupRepository
+                .findByBankBranchIdAndRollupDateIn(bankBranchId, days)
+                .stream()
+                .collect(Collectors.toMap(BranchDailyRollup::getRollupDate, Function.identity()));
+        
+        String branchName = bankBranchDirectory.nameOf(bankBranchId);
+        LocalDateTime now = LocalDateTime.now();
+        List<BranchDailyRollup> rollups = new ArrayList<>(days.size());
+        for (LocalDate day : days) {
+            BranchDailyRollup rollup = existing.getOrDefault(day, new BranchDailyRollup());
+            BranchDayAggregate aggregate = aggregates.get(day);
+            rollup.setBankBranchId(bankBranchId);
+            rollup.setBranchName(branchName != null ? branchName : String.valueOf(bankBranchId));
+            rollup.setRollupDate(day);
+            rollup.setApplicationCount(aggregate == null ? 0 : aggregate.getApplications());
+            rollup.setApprovedCount(aggregate == null ? 0 : aggregate.getApproved());
+            rollup.setRejectedCount(aggregate == null ? 0 : aggregate.getRejected());
+            rollup.setTotalAmount(aggregate == null ? BigDecimal.ZERO : aggregate.getTotalAmount());
+            rollup.setApprovedAmount(aggregate == null ? BigDecimal.ZERO : aggregate.getApprovedAmount());
+            rollup.setRefreshedAt(now);
+            rollups.add(rollup);
+        }
+        branchDailyRollupRepository.saveAll(rollups);
+        return rollups.size();
+    }
+    
+    private void createWatermarkIfMissing() {
+        if (rollupWatermarkRepository.existsById(WATERMARK_NAME)) {
+            return;
+        }
+        try {
+            rollupWatermarkRepository.insert(WATERMARK_NAME, NEVER);
+        } catch (DataIntegrityViolationException e) {
+            // Another instance created it first
+        }
+    }
+    
+    private void aggregateRun(Long bankBranchId, LocalDate first, LocalDate last,
+                              Map<LocalDate, BranchDayAggregate> aggregates) {
+        for (BranchDayAggregate aggregate : loanApplicationRepository.aggregateBranchDays(bankBranchId,
+                first.atStartOfDay(), last.plusDays(1).atStartOfDay())) {
+            aggregates.put(aggregate.getDay(), aggregate);
+        }
+    }
+}
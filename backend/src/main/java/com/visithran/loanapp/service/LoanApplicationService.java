@@ -1,42 +1,81 @@
 package com.visithran.loanapp.service;
 
+import com.visithran.loanapp.config.ReviewQueueProperties;
+import com.visithran.loanapp.dto.FacetCount;
+import com.visithran.loanapp.dto.LoanApplicationField;
 import com.visithran.loanapp.dto.LoanApplicationRequest;
 import com.visithran.loanapp.dto.LoanApplicationResponse;
+import com.visithran.loanapp.dto.LoanFilterRequest;
+import com.visithran.loanapp.dto.LoanFilterResponse;
+import com.visithran.loanapp.dto.ReviewClaimResponse;
+import com.visithran.loanapp.dto.ReviewPriority;
 import com.visithran.loanapp.entity.LoanApplication;
 import com.visithran.loanapp.entity.User;
 import com.visithran.loanapp.repository.LoanApplicationRepository;
+import com.visithran.loanapp.repository.LoanApplicationSpecifications;
+import com.visithran.loanapp.repository.LoanFacet;
 import com.visithran.loanapp.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
 public class LoanApplicationService {
     
+    // Applications waiting for a decision; VIEWED ones return to the queue when their lease expires
+    private static final List<LoanApplication.Status> REVIEWABLE_STATUSES =
+            List.of(LoanApplication.Status.SUBMITTED, LoanApplication.Status.VIEWED);
+    
     @Autowired
     private LoanApplicationRepository loanApplicationRepository;
     
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private LoanTriageService loanTriageService;
+    
+    @Autowired
+    private BankBranchDirectory bankBranchDirectory;
+    
+    @Autowired
+    private ReviewQueueProperties reviewQueueProperties;
+    
     public LoanApplicationResponse submitLoanApplication(LoanApplicationRequest request, String userEmail) {
         User applicant = userRepository.findByEmail(userEmail)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         
+        Long bankBranchId = bankBranchDirectory.idOf(request.getSelectedBankBranch());
+        if (bankBranchId == null) {
+            throw new RuntimeException("Bank branch not found");
+        }
+        
         LoanApplication application = new LoanApplication();
         application.setApplicant(applicant);
         application.setLoanType(LoanApplication.LoanType.valueOf(request.getLoanType()));
         application.setAmount(request.getAmount());
         application.setDescription(request.getDescription());
-        application.setSelectedBankBranch(request.getSelectedBankBranch());
+        application.setSelectedBankBranch(bankBranchDirectory.nameOf(bankBranchId));
+        application.setBankBranchId(bankBranchId);
         application.setStatus(LoanApplication.Status.SUBMITTED);
+        loanTriageService.triage(application);
         
         LoanApplication savedApplication = loanApplicationRepository.save(application);
-        return LoanApplicationResponse.fromLoanApplication(savedApplication);
+        return toResponse(savedApplication);
     }
     
     public List<LoanApplicationResponse> getUserApplications(String userEmail) {
@@ -45,10 +84,18 @@ public class LoanApplicationService {
         
         List<LoanApplication> applications = loanApplicationRepository.findByApplicantId(user.getId());
         return applications.stream()
-                .map(LoanApplicationResponse::fromLoanApplication)
+                .map(this::toResponse)
                 .collect(Collectors.toList());
     }
     
+    // Sparse variant: only the requested columns are read and returned
+    public List<Map<String, Object>> getUserApplications(String userEmail, EnumSet<LoanApplicationField> fields) {
+        User user = userRepository.findByEmail(userEmail)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        
+        return findFields(LoanApplicationSpecifications.hasApplicant(user.getId()), fields);
+    }
+    
     public Page<LoanApplicationResponse> getAllApplications(Pageable pageable, String search) {
         Page<LoanApplication> applications;
         if (search != null && !search.trim().isEmpty()) {
@@ -57,48 +104,211 @@ public class LoanApplicationService {
             applications = loanApplicationRepository.findAll(pageable);
         }
         
-        return applications.map(LoanApplicationResponse::fromLoanApplication);
+        return applications.map(this::toResponse);
     }
     
-    public LoanApplicationResponse approveLoan(Long id) {
-        LoanApplication application = loanApplicationRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Loan application not found"));
+    public Page<Map<String, Object>> getAllApplications(Pageable pageable, String search,
+                                                        EnumSet<LoanApplicationField> fields) {
+        Specification<LoanApplication> specification = search != null && !search.trim().isEmpty()
+                ? LoanApplicationSpecifications.searchTerm(search)
+                : Specification.where(null);
+        
+        List<Map<String, Object>> content = loanApplicationRepository.findFields(specification, fields, pageable).stream()
+                .map(response -> toSparseResponse(response, fields))
+                .collect(Collectors.toList());
+        return PageableExecutionUtils.getPage(content, pageable, () -> loanApplicationRepository.count(specification));
+    }
+    
+    public LoanFilterResponse filterApplications(LoanFilterRequest filter, Pageable pageable) {
+        Specification<LoanApplication> specification = LoanApplicationSpecifications.matching(filter);
+        
+        LoanFilterResponse response = new LoanFilterResponse();
+        response.setApplications(loanApplicationRepository.findAll(specification, pageable).map(this::toResponse));
+        // Each facet is counted without its own criterion, so selected values don't hide the others
+        response.setStatusCounts(toFacetCounts(countFacet(filter, LoanFacet.STATUS)));
+        response.setLoanTypeCounts(toFacetCounts(countFacet(filter, LoanFacet.LOAN_TYPE)));
+        
+        // Applications not yet backfilled have no branch id; their bucket has a null value
+        response.setBranchCounts(countFacet(filter, LoanFacet.BANK_BRANCH).entrySet().stream()
+                .map(entry -> entry.getKey() == null
+                        ? new FacetCount(null, "Unassigned", entry.getValue())
+                        : new FacetCount(String.valueOf(entry.getKey()), bankBranchDirectory.nameOf((Long) entry.getKey()),
+                                entry.getValue()))
+                .collect(Collectors.toList()));
+        return response;
+    }
+    
+    // adminEmail is only checked while a review lease is live; then it must be the holder's
+    @Transactional
+    public LoanApplicationResponse approveLoan(Long id, String adminEmail) {
+        LoanApplication application = findForDecision(id, adminEmail);
         
         application.setStatus(LoanApplication.Status.APPROVED);
+        application.setDecisionSource(LoanApplication.DecisionSource.ADMIN);
+        clearReviewLease(application);
         LoanApplication updatedApplication = loanApplicationRepository.save(application);
-        return LoanApplicationResponse.fromLoanApplication(updatedApplication);
+        return toResponse(updatedApplication);
     }
     
-    public LoanApplicationResponse rejectLoan(Long id, String rejectionReason) {
-        LoanApplication application = loanApplicationRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Loan application not found"));
+    @Transactional
+    public LoanApplicationResponse rejectLoan(Long id, String rejectionReason, String adminEmail) {
+        LoanApplication application = findForDecision(id, adminEmail);
         
         application.setStatus(LoanApplication.Status.REJECTED);
         application.setRejectionReason(rejectionReason);
+        application.setDecisionSource(LoanApplication.DecisionSource.ADMIN);
+        clearReviewLease(application);
         LoanApplication updatedApplication = loanApplicationRepository.save(application);
-        return LoanApplicationResponse.fromLoanApplication(updatedApplication);
+        return toResponse(updatedApplication);
     }
     
-    public LoanApplicationResponse markAsViewed(Long id) {
-        LoanApplication application = loanApplicationRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Loan application not found"));
+    @Transactional
+    public LoanApplicationResponse markAsViewed(Long id, String adminEmail) {
+        LoanApplication application = findForDecision(id, adminEmail);
         
         application.setStatus(LoanApplication.Status.VIEWED);
         LoanApplication updatedApplication = loanApplicationRepository.save(application);
-        return LoanApplicationResponse.fromLoanApplication(updatedApplication);
+        return toResponse(updatedApplication);
+    }
+    
+    // Hands the admin the next applications nobody holds. Concurrent claimers skip rows
+    // locked by each other, so they never wait and never receive the same application.
+    @Transactional
+    public ReviewClaimResponse claimReviews(String adminEmail, int limit, ReviewPriority priority) {
+        User admin = findAdmin(adminEmail);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime leaseExpiresAt = now.plus(reviewQueueProperties.getLease());
+        int size = Math.max(1, Math.min(limit, reviewQueueProperties.getMaxClaim()));
+        
+        List<Long> ids = loanApplicationRepository.lockClaimableIds(REVIEWABLE_STATUSES, now,
+                PageRequest.of(0, size, priority.getSort()));
+        if (ids.isEmpty()) {
+            return new ReviewClaimResponse(List.of(), null);
+        }
+        loanApplicationRepository.assignReviewer(ids, admin.getId(), leaseExpiresAt);
+        
+        List<LoanApplicationResponse> applications = loanApplicationRepository.findByIdIn(ids, priority.getSort()).stream()
+                .map(this::toResponse)
+                .collect(Collectors.toList());
+        return new ReviewClaimResponse(applications, leaseExpiresAt);
+    }
+    
+    // leaseExpiresAt is the earliest expiry among the applications the admin holds
+    public ReviewClaimResponse getClaimedReviews(String adminEmail) {
+        return claimedReviews(findAdmin(adminEmail));
+    }
+    
+    public ReviewClaimResponse renewReviews(String adminEmail) {
+        User admin = findAdmin(adminEmail);
+        LocalDateTime now = LocalDateTime.now();
+        loanApplicationRepository.renewReviewLeases(admin.getId(), now, now.plus(reviewQueueProperties.getLease()));
+        return claimedReviews(admin);
+    }
+    
+    // Returns the given applications, or all of them when ids is empty, to the queue
+    public int releaseReviews(String adminEmail, Collection<Long> ids) {
+        User admin = findAdmin(adminEmail);
+        if (ids == null || ids.isEmpty()) {
+            return loanApplicationRepository.releaseAllReviews(admin.getId());
+        }
+        return loanApplicationRepository.releaseReviews(admin.getId(), ids);
     }
     
     public List<LoanApplicationResponse> getRejectedApplications() {
         List<LoanApplication> rejectedApplications = loanApplicationRepository.findByStatus(LoanApplication.Status.REJECTED);
         return rejectedApplications.stream()
-                .map(LoanApplicationResponse::fromLoanApplication)
+                .map(this::toResponse)
                 .collect(Collectors.toList());
     }
     
     public List<LoanApplicationResponse> getApplicationsByStatus(LoanApplication.Status status) {
         List<LoanApplication> applications = loanApplicationRepository.findByStatus(status);
         return applications.stream()
-                .map(LoanApplicationResponse::fromLoanApplication)
+                .map(this::toResponse)
+                .collect(Collectors.toList());
+    }
+    
+    public List<Map<String, Object>> getApplicationsByStatus(LoanApplication.Status status,
+                                                             EnumSet<LoanApplicationField> fields) {
+        return findFields(LoanApplicationSpecifications.hasStatus(status), fields);
+    }
+    
+    private ReviewClaimResponse claimedReviews(User admin) {
+        List<LoanApplication> applications = loanApplicationRepository.findByReviewerIdAndReviewLeaseExpiresAtAfter(
+                admin.getId(), LocalDateTime.now(), ReviewPriority.OLDEST.getSort());
+        
+        LocalDateTime leaseExpiresAt = applications.stream()
+                .map(LoanApplication::getReviewLeaseExpiresAt)
+                .min(LocalDateTime::compareTo)
+                .orElse(null);
+        return new ReviewClaimResponse(applications.stream().map(this::toResponse).collect(Collectors.toList()),
+                leaseExpiresAt);
+    }
+    
+    private User findAdmin(String adminEmail) {
+        User admin = userRepository.findByEmail(adminEmail)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        if (admin.getRole() != User.Role.ADMIN) {
+            throw new RuntimeException("Only admins can review applications");
+        }
+        return admin;
+    }
+    
+    // Locks the row, so a concurrent claim skips it instead of handing it out mid-decision,
+    // and turns away anyone but the lease holder while the lease is live
+    private LoanApplication findForDecision(Long id, String adminEmail) {
+        LoanApplication application = loanApplicationRepository.findByIdForUpdate(id)
+                .orElseThrow(() -> new RuntimeException("Loan application not found"));
+        
+        boolean leased = application.getReviewerId() != null
+                && application.getReviewLeaseExpiresAt().isAfter(LocalDateTime.now());
+        if (leased) {
+            Long actorId = adminEmail == null ? null
+                    : userRepository.findByEmail(adminEmail).map(User::getId).orElse(null);
+            if (!application.getReviewerId().equals(actorId)) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT,
+                        "Application is claimed by another reviewer until " + application.getReviewLeaseExpiresAt());
+            }
+        }
+        return application;
+    }
+    
+    private static void clearReviewLease(LoanApplication application) {
+        application.setReviewerId(null);
+        application.setReviewLeaseExpiresAt(null);
+    }
+    
+    private List<Map<String, Object>> findFields(Specification<LoanApplication> specification,
+                                                 EnumSet<LoanApplicationField> fields) {
+        return loanApplicationRepository.findFields(specification, fields, Pageable.unpaged()).stream()
+                .map(response -> toSparseResponse(response, fields))
+                .collect(Collectors.toList());
+    }
+    
+    private Map<String, Object> toSparseResponse(LoanApplicationResponse response, EnumSet<LoanApplicationField> fields) {
+        String branchName = bankBranchDirectory.nameOf(response.getBankBranchId());
+        if (branchName != null) {
+            response.setSelectedBankBranch(branchName);
+        }
+        return LoanApplicationField.select(response, fields);
+    }
+    
+    private LoanApplicationResponse toResponse(LoanApplication application) {
+        LoanApplicationResponse response = LoanApplicationResponse.fromLoanApplication(application);
+        String branchName = bankBranchDirectory.nameOf(application.getBankBranchId());
+        if (branchName != null) {
+            response.setSelectedBankBranch(branchName);
+        }
+        return response;
+    }
+    
+    private Map<Object, Long> countFacet(LoanFilterRequest filter, LoanFacet facet) {
+        return loanApplicationRepository.countGroupedBy(LoanApplicationSpecifications.matchingExcept(filter, facet), facet);
+    }
+    
+    private static List<FacetCount> toFacetCounts(Map<Object, Long> counts) {
+        return counts.entrySet().stream()
+                .map(entry -> new FacetCount(String.valueOf(entry.getKey()), String.valueOf(entry.getKey()), entry.getValue()))
                 .collect(Collectors.toList());
     }
 }
@@ -0,0 +1,153 @@
+package com.visithran.loanapp.service;
+
+import com.visithran.loanapp.config.LoanCalculatorProperties;
+import com.visithran.loanapp.dto.LoanQuoteRequest;
+import com.visithran.loanapp.dto.LoanQuoteResponse;
+import com.visithran.loanapp.entity.LoanApplication;
+import com.visithran.loanapp.repository.LoanApplicationSpecifications;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+public class LoanCalculatorService {
+    
+    // Amounts are carried as whole cents and rates as basis points, so the
+    // monthly rate is exactly rateBps / 120000 (12 months * 100% * 100 bps)
+    static final long MONTHLY_RATE_DENOMINATOR = 120_000L;
+    
+    static final int MAX_RATE_BPS = 5_000;
+    
+    static final long MAX_PRINCIPAL_CENTS = 100_000_000_000_000L;
+    
+    @Autowired
+    private LoanCalculatorProperties properties;
+    
+    public LoanQuoteResponse quote(LoanQuoteRequest request) {
+        LoanApplication.LoanType loanType = LoanApplicationSpecifications.parseEnum(LoanApplication.LoanType.class,
+                request.getLoanType());
+        LoanCalculatorProperties.Product product = properties.getProducts().get(loanType);
+        if (product == null) {
+            throw new RuntimeException("No calculator settings for loan type " + loanType);
+        }
+        
+        BigDecimal annualRate = (request.getAnnualRate() != null ? request.getAnnualRate() : product.getAnnualRate())
+                .setScale(2, RoundingMode.HALF_UP);
+        int tenureMonths = request.getTenureMonths() != null ? request.getTenureMonths() : product.getDefaultTenureMonths();
+        if (tenureMonths < product.getMinTenureMonths() || tenureMonths > product.getMaxTenureMonths()) {
+            throw new RuntimeException("Tenure for " + loanType + " must be between "
+                    + product.getMinTenureMonths() + " and " + product.getMaxTenureMonths() + " months");
+        }
+        
+        BigDecimal amount = request.getAmount().setScale(2, RoundingMode.HALF_UP);
+        long principalCents = amount.unscaledValue().longValueExact();
+        int rateBps = annualRate.unscaledValue().intValueExact();
+        if (principalCents > MAX_PRINCIPAL_CENTS || rateBps < 0 || rateBps > MAX_RATE_BPS) {
+            throw new RuntimeException("Amount or rate out of range");
+        }
+        
+        long monthlyPayment = monthlyPaymentCents(principalCents, rateBps, tenureMonths);
+        long[][] schedule = request.isIncludeSchedule() ? new long[4][tenureMonths] : null;
+        long totalInterest = amortize(principalCents, rateBps, tenureMonths, monthlyPayment, schedule);
+        
+        LoanQuoteResponse response = new LoanQuoteResponse();
+        response.setLoanType(loanType.name());
+        response.setAmount(amount);
+        response.setAnnualRate(annualRate);
+        response.setTenureMonths(tenureMonths);
+        response.setMonthlyPayment(toAmount(monthlyPayment));
+        response.setTotalInterest(toAmount(totalInterest));
+        response.setTotalPayment(toAmount(principalCents + totalInterest));
+        if (schedule != null) {
+            List<LoanQuoteResponse.Installment> installments = new ArrayList<>(tenureMonths);
+            for (int i = 0; i < tenureMonths; i++) {
+                LoanQuoteResponse.Installment installment = new LoanQuoteResponse.Installment();
+                installment.setMonth(i + 1);
+                installment.setPayment(toAmount(schedule[0][i]));
+                installment.setPrincipal(toAmount(schedule[1][i]));
+                installment.setInterest(toAmount(schedule[2][i]));
+                installment.setBalance(toAmount(schedule[3][i]));
+                installments.add(installment);
+            }
+            response.setSchedule(installments);
+        }
+        return response;
+    }
+    
+    public List<LoanQuoteResponse> quoteBatch(List<LoanQuoteRequest> requests) {
+        if (requests.size() > properties.getMaxBatchSize()) {
+            throw new RuntimeException("Batch size must not exceed " + properties.getMaxBatchSize());
+        }
+        
+        // Quotes are independent and CPU bound; the parallel stream keeps request order
+        return requests.parallelStream()
+                .map(this::quote)
+                .collect(Collectors.toList());
+    }
+    
+    static long monthlyPaymentCents(long principalCents, int rateBps, int months) {
+        if (rateBps == 0) {
+            return divideHalfUp(principalCents, months);
+        }
+        
+        double rate = rateBps / (double) MONTHLY_RATE_DENOMINATOR;
+        double growthMinusOne = Math.expm1(months * Math.log1p(rate));
+        double payment = principalCents * rate * (growthMinusOne + 1) / growthMinusOne;
+        double whole = Math.floor(payment);
+        double fraction = payment - whole;
+        
+        // The double result is accurate to ~1e-14 relative; only results sitting on a
+        // half-cent boundary need the slow path to round the same way as BigDecimal
+        if (Math.abs(fraction - 0.5) <= payment * 1e-12) {
+            return monthlyPaymentCentsExact(principalCents, rateBps, months);
+        }
+        return (long) whole + (fraction > 0.5 ? 1 : 0);
+    }
+    
+    static long monthlyPaymentCentsExact(long principalCents, int rateBps, int months) {
+        MathContext mc = MathContext.DECIMAL128;
+        BigDecimal rate = BigDecimal.valueOf(rateBps).divide(BigDecimal.valueOf(MONTHLY_RATE_DENOMINATOR), mc);
+        BigDecimal growth = BigDecimal.ONE.add(rate).pow(months, mc);
+        return BigDecimal.valueOf(principalCents)
+                .multiply(rate, mc)
+                .multiply(growth, mc)
+                .divide(growth.subtract(BigDecimal.ONE), mc)
+                .setScale(0, RoundingMode.HALF_UP)
+                .longValueExact();
+    }
+    
+    // Runs the schedule in whole cents and returns the total interest; rows of a non-null
+    // schedule hold payment, principal, interest and closing balance. The final installment
+    // absorbs the rounding remainder so the balance always closes at zero.
+    static long amortize(long principalCents, int rateBps, int months, long monthlyPayment, long[][] schedule) {
+        long balance = principalCents;
+        long totalInterest = 0;
+        for (int i = 0; i < months; i++) {
+            long interest = divideHalfUp(balance * rateBps, MONTHLY_RATE_DENOMINATOR);
+            long principal = i == months - 1 ? balance : Math.min(monthlyPayment - interest, balance);
+            balance -= principal;
+            totalInterest += interest;
+            if (schedule != null) {
+                schedule[0][i] = principal + interest;
+                schedule[1][i] = principal;
+                schedule[2][i] = interest;
+                schedule[3][i] = balance;
+            }
+        }
+        return totalInterest;
+    }
+    
+    private static long divideHalfUp(long dividend, long divisor) {
+        return (2 * dividend + divisor) / (2 * divisor);
+    }
+    
+    private static BigDecimal toAmount(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+}
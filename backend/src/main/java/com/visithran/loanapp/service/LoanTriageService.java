@@ -0,0 +1,150 @@
+package com.visithran.loanapp.service;
+
+import com.visithran.loanapp.config.LoanTriageProperties;
+import com.visithran.loanapp.entity.LoanApplication;
+import com.visithran.loanapp.repository.ApplicantStatusCount;
+import com.visithran.loanapp.repository.LoanApplicationRepository;
+import com.visithran.loanapp.repository.TriageCandidate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.Collectors;
+
+@Service
+public class LoanTriageService {
+    
+    @Autowired
+    private LoanApplicationRepository loanApplicationRepository;
+    
+    @Autowired
+    private TriageRuleEngine triageRuleEngine;
+    
+    @Autowired
+    private LoanTriageProperties properties;
+    
+    // Applies the rules to a new, unsaved application
+    public void triage(LoanApplication application) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        
+        Long applicantId = application.getApplicant().getId();
+        TriageRuleEngine.ApplicantHistory history = loadHistories(Set.of(applicantId))
+                .getOrDefault(applicantId, new TriageRuleEngine.ApplicantHistory());
+        TriageRuleEngine.Decision decision = triageRuleEngine.evaluate(application.getLoanType(),
+                application.getAmount(), application.getSelectedBankBranch(), history);
+        
+        application.setStatus(decision.getStatus());
+        application.setRiskScore(decision.getRiskScore());
+        application.setRejectionReason(decision.getRejectionReason());
+        application.setDecisionSource(decision.getSource());
+    }
+    
+    // Re-runs the rules over every SUBMITTED application. Chunks are read by id on the
+    // calling thread and evaluated on a fork/join pool; at most two chunks per worker
+    // are held in memory at once.
+    public Map<String, Long> reevaluateSubmittedBacklog() {
+        int chunkSize = properties.getBatchChunkSize();
+        int parallelism = Math.max(1, properties.getBatchParallelism());
+        long[] totals = new long[3];
+        
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            Deque<ForkJoinTask<long[]>> pending = new ArrayDeque<>();
+            long afterId = 0;
+            List<TriageCandidate> chunk;
+            do {
+                chunk = loanApplicationRepository.findTriageCandidates(
+                        LoanApplication.Status.SUBMITTED, afterId, PageRequest.of(0, chunkSize));
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                afterId = chunk.get(chunk.size() - 1).getId();
+                List<TriageCandidate> candidates = chunk;
+                pending.add(pool.submit(() -> triageChunk(candidates)));
+                if (pending.size() >= parallelism * 2) {
+                    addTotals(totals, pending.poll().join());
+                }
+            } while (chunk.size() == chunkSize);
+            
+            while (!pending.isEmpty()) {
+                addTotals(totals, pending.poll().join());
+            }
+        } finally {
+            pool.shutdown();
+        }
+        
+        Map<String, Long> summary = new LinkedHashMap<>();
+        summary.put("evaluated", totals[0]);
+        summary.put("approved", totals[1]);
+        summary.put("rejected", totals[2]);
+        return summary;
+    }
+    
+    private long[] triageChunk(List<TriageCandidate> candidates) {
+        Set<Long> applicantIds = candidates.stream()
+                .map(TriageCandidate::getApplicantId)
+                .collect(Collectors.toSet());
+        Map<Long, TriageRuleEngine.ApplicantHistory> histories = loadHistories(applicantIds);
+        
+        long[] counts = new long[3];
+        for (TriageCandidate candidate : candidates) {
+            TriageRuleEngine.ApplicantHistory history = histories.getOrDefault(candidate.getApplicantId(),
+                    new TriageRuleEngine.ApplicantHistory());
+            // The candidate itself is counted as open in its applicant's history
+            TriageRuleEngine.ApplicantHistory otherHistory = new TriageRuleEngine.ApplicantHistory(
+                    Math.max(0, history.getOpenApplications() - 1), history.getRejectedApplications());
+            TriageRuleEngine.Decision decision = triageRuleEngine.evaluate(candidate.getLoanType(),
+                    candidate.getAmount(), candidate.getSelectedBankBranch(), otherHistory);
+            counts[0]++;
+            
+            boolean unchanged = decision.getStatus() == LoanApplication.Status.SUBMITTED
+                    && Integer.valueOf(decision.getRiskScore()).equals(candidate.getRiskScore());
+            if (unchanged) {
+                continue;
+            }
+            // Conditional on the row still being SUBMITTED so concurrent admin decisions win
+            int updated = loanApplicationRepository.updateTriageResult(candidate.getId(),
+                    LoanApplication.Status.SUBMITTED, decision.getStatus(), decision.getRiskScore(),
+                    decision.getRejectionReason(), decision.getSource(), LocalDateTime.now());
+            if (updated == 1 && decision.getStatus() == LoanApplication.Status.APPROVED) {
+                counts[1]++;
+            } else if (updated == 1 && decision.getStatus() == LoanApplication.Status.REJECTED) {
+                counts[2]++;
+            }
+        }
+        return counts;
+    }
+    
+    private Map<Long, TriageRuleEngine.ApplicantHistory> loadHistories(Set<Long> applicantIds) {
+        Map<Long, TriageRuleEngine.ApplicantHistory> histories = new HashMap<>();
+        for (ApplicantStatusCount count : loanApplicationRepository.countStatusesByApplicantIds(applicantIds)) {
+            TriageRuleEngine.ApplicantHistory history = histories.computeIfAbsent(count.getApplicantId(),
+                    id -> new TriageRuleEngine.ApplicantHistory());
+            switch (count.getStatus()) {
+                case SUBMITTED, VIEWED -> history.setOpenApplications(
+                        history.getOpenApplications() + count.getCount().intValue());
+                case REJECTED -> history.setRejectedApplications(count.getCount().intValue());
+                default -> { }
+            }
+        }
+        return histories;
+    }
+    
+    private static void addTotals(long[] totals, long[] counts) {
+        for (int i = 0; i < totals.length; i++) {
+            totals[i] += counts[i];
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.visithran.loanapp.service;
+
+import com.visithran.loanapp.config.LoanTriageProperties;
+import com.visithran.loanapp.entity.LoanApplication;
+import jakarta.annotation.PostConstruct;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+@Component
+public class TriageRuleEngine {
+    
+    private static final long NO_LIMIT = -1;
+    
+    private static final int MAX_AMOUNT_RISK = 50;
+    
+    @Autowired
+    private LoanTriageProperties properties;
+    
+    // Rules compiled into flat lookups indexed by LoanType ordinal, amounts in cents
+    private long[] approveLimitCents;
+    private long[] rejectLimitCents;
+    private Map<String, Integer> branchRisk;
+    
+    @PostConstruct
+    public void compile() {
+        LoanApplication.LoanType[] loanTypes = LoanApplication.LoanType.values();
+        long[] approveLimits = new long[loanTypes.length];
+        long[] rejectLimits = new long[loanTypes.length];
+        for (LoanApplication.LoanType loanType : loanTypes) {
+            LoanTriageProperties.Limits limits = properties.getLimits().get(loanType);
+            approveLimits[loanType.ordinal()] = limits == null ? NO_LIMIT : toCents(limits.getAutoApproveAmount());
+            rejectLimits[loanType.ordinal()] = limits == null ? NO_LIMIT : toCents(limits.getAutoRejectAmount());
+        }
+        approveLimitCents = approveLimits;
+        rejectLimitCents = rejectLimits;
+        branchRisk = new HashMap<>(properties.getBranchRisk());
+    }
+    
+    public Decision evaluate(LoanApplication.LoanType loanType, BigDecimal amount, String branch, ApplicantHistory history) {
+        long amountCents = toCents(amount);
+        long approveLimit = approveLimitCents[loanType.ordinal()];
+        long rejectLimit = rejectLimitCents[loanType.ordinal()];
+        
+        int score = rejectLimit > 0 ? (int) Math.min(MAX_AMOUNT_RISK, amountCents * MAX_AMOUNT_RISK / rejectLimit) : 0;
+        score += history.getOpenApplications() * properties.getOpenApplicationRisk();
+        score += history.getRejectedApplications() * properties.getPriorRejectionRisk();
+        score += branchRisk.getOrDefault(branch, 0);
+        score = Math.min(100, Math.max(0, score));
+        
+        if (rejectLimit != NO_LIMIT && amountCents > rejectLimit) {
+            return new Decision(LoanApplication.Status.REJECTED, score,
+                    "Automatically rejected: amount exceeds the limit for " + loanType,
+                    LoanApplication.DecisionSource.TRIAGE_AMOUNT_LIMIT);
+        }
+        if (score >= properties.getRejectMinScore()) {
+            return new Decision(LoanApplication.Status.REJECTED, score,
+                    "Automatically rejected: risk score " + score, LoanApplication.DecisionSource.TRIAGE_RISK_SCORE);
+        }
+        if (approveLimit != NO_LIMIT && amountCents <= approveLimit && score <= properties.getApproveMaxScore()) {
+            return new Decision(LoanApplication.Status.APPROVED, score, null,
+                    LoanApplication.DecisionSource.TRIAGE_AUTO_APPROVE);
+        }
+        return new Decision(LoanApplication.Status.SUBMITTED, score, null, null);
+    }
+    
+    private static long toCents(BigDecimal amount) {
+        return amount == null ? NO_LIMIT : amount.movePointRight(2).longValue();
+    }
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ApplicantHistory {
+        private int openApplications;
+        private int rejectedApplications;
+    }
+    
+    @Data
+    @AllArgsConstructor
+    public static class Decision {
+        private LoanApplication.Status status;
+        private int riskScore;
+        private String rejectionReason;
+        // Null while the application is left for an admin
+        private LoanApplication.DecisionSource source;
+    }
+}
@@ -0,0 +1,116 @@
+package com.visithran.loanapp.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.visithran.loanapp.dto.LoanApplicationResponse;
+import com.visithran.loanapp.dto.UserResponse;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+// Compares JSON, CBOR and Smile for a page of loan applications: payload size,
+// gzipped size and encode/decode time. Run from the backend directory with
+//   mvn test-compile exec:java -Dexec.classpathScope=test \
+//       -Dexec.mainClass=com.visithran.loanapp.benchmark.EncodingBenchmark [-Dexec.args="pageSize iterations"]
+public class EncodingBenchmark {
+    
+    private static final String[] LOAN_TYPES = {"PERSONAL_LOAN", "EDUCATION_LOAN", "HOUSE_LOAN", "JEWEL_LOAN", "AUTO_LOAN"};
+    private static final String[] STATUSES = {"SUBMITTED", "APPROVED", "REJECTED", "VIEWED"};
+    
+    public static void main(String[] args) throws IOException {
+        int pageSize = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        
+        // Same settings Spring Boot applies to the application's mappers
+        Map<String, ObjectMapper> mappers = new LinkedHashMap<>();
+        mappers.put("json", configure(Jackson2ObjectMapperBuilder.json()).build());
+        mappers.put("cbor", configure(Jackson2ObjectMapperBuilder.cbor()).build());
+        mappers.put("smile", configure(Jackson2ObjectMapperBuilder.smile()).build());
+        
+        LoanApplicationResponse[] page = samplePage(pageSize);
+        String reference = mappers.get("json").writeValueAsString(page);
+        
+        System.out.printf("%d applications per page, median of %d iterations%n", pageSize, iterations);
+        System.out.printf("%-6s %10s %10s %12s %12s%n", "format", "bytes", "gzipped", "encode us", "decode us");
+        for (Map.Entry<String, ObjectMapper> entry : mappers.entrySet()) {
+            ObjectMapper mapper = entry.getValue();
+            byte[] encoded = mapper.writeValueAsBytes(page);
+            
+            // Every format must decode to exactly what JSON carries
+            LoanApplicationResponse[] decoded = mapper.readValue(encoded, LoanApplicationResponse[].class);
+            if (!reference.equals(mappers.get("json").writeValueAsString(decoded))) {
+                throw new IllegalStateException(entry.getKey() + " does not round-trip to the JSON schema");
+            }
+            
+            long[] encodeNanos = new long[iterations];
+            long[] decodeNanos = new long[iterations];
+            for (int warmup = 0; warmup < iterations; warmup++) {
+                mapper.readValue(mapper.writeValueAsBytes(page), LoanApplicationResponse[].class);
+            }
+            for (int i = 0; i < iterations; i++) {
+                long start = System.nanoTime();
+                byte[] bytes = mapper.writeValueAsBytes(page);
+                encodeNanos[i] = System.nanoTime() - start;
+                
+                start = System.nanoTime();
+                mapper.readValue(bytes, LoanApplicationResponse[].class);
+                decodeNanos[i] = System.nanoTime() - start;
+            }
+            System.out.printf("%-6s %10d %10d %12d %12d%n", entry.getKey(), encoded.length, gzippedSize(encoded),
+                    median(encodeNanos) / 1000, median(decodeNanos) / 1000);
+        }
+    }
+    
+    private static Jackson2ObjectMapperBuilder configure(Jackson2ObjectMapperBuilder builder) {
+        return builder.featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS,
+                SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS);
+    }
+    
+    private static LoanApplicationResponse[] samplePage(int size) {
+        LoanApplicationResponse[] page = new LoanApplicationResponse[size];
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 9, 0);
+        for (int i = 0; i < size; i++) {
+            UserResponse applicant = new UserResponse();
+            applicant.setId((long) (i % 97) + 1);
+            applicant.setName("Applicant " + (i % 97));
+            applicant.setEmail("applicant" + (i % 97) + "@example.com");
+            applicant.setRole("APPLICANT");
+            
+            LoanApplicationResponse response = new LoanApplicationResponse();
+            response.setId((long) i + 1);
+            response.setApplicant(applicant);
+            response.setLoanType(LOAN_TYPES[i % LOAN_TYPES.length]);
+            response.setAmount(BigDecimal.valueOf(50_000 + (i * 7919L) % 5_000_000, 2));
+            response.setDescription(i % 3 == 0 ? null : "Funds for " + LOAN_TYPES[i % LOAN_TYPES.length].toLowerCase());
+            response.setSelectedBankBranch("Branch " + (i % 12));
+            response.setBankBranchId((long) (i % 12) + 1);
+            response.setStatus(STATUSES[i % STATUSES.length]);
+            response.setRejectionReason(i % STATUSES.length == 2 ? "Insufficient income documentation" : null);
+            response.setRiskScore(i % 100);
+            response.setCreatedAt(createdAt.plusMinutes(i * 37L).plusNanos(i * 1_000_000L));
+            page[i] = response;
+        }
+        return page;
+    }
+    
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+    
+    private static int gzippedSize(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.size();
+    }
+}
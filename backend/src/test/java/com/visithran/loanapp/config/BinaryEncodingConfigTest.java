@@ -0,0 +1,126 @@
+package com.visithran.loanapp.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.visithran.loanapp.entity.LoanApplication;
+import com.visithran.loanapp.entity.User;
+import com.visithran.loanapp.repository.LoanApplicationRepository;
+import com.visithran.loanapp.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class BinaryEncodingConfigTest {
+
+    private static final MediaType CBOR = MediaType.parseMediaType("application/cbor");
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+    private static final String QUOTE = "{\"loanType\":\"PERSONAL_LOAN\",\"amount\":100000}";
+
+    private final ObjectMapper cborMapper = new ObjectMapper(new CBORFactory());
+    private final ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private LoanApplicationRepository loanApplicationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        loanApplicationRepository.deleteAll();
+        userRepository.deleteAll();
+
+        User applicant = new User();
+        applicant.setName("Test User");
+        applicant.setEmail("applicant@example.com");
+        applicant.setRole(User.Role.APPLICANT);
+        applicant = userRepository.save(applicant);
+
+        LoanApplication application = new LoanApplication();
+        application.setApplicant(applicant);
+        application.setLoanType(LoanApplication.LoanType.PERSONAL_LOAN);
+        application.setAmount(new BigDecimal("15000"));
+        application.setSelectedBankBranch("Main Branch - Downtown");
+        loanApplicationRepository.save(application);
+    }
+
+    @Test
+    void testJsonIsTheDefault() throws Exception {
+        mockMvc.perform(post("/api/calculator/quote").contentType(MediaType.APPLICATION_JSON).content(QUOTE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.loanType").value("PERSONAL_LOAN"));
+        mockMvc.perform(post("/api/calculator/quote").contentType(MediaType.APPLICATION_JSON).content(QUOTE)
+                        .accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void testCborIsServedOnRequest() throws Exception {
+        byte[] body = mockMvc.perform(post("/api/calculator/quote").contentType(MediaType.APPLICATION_JSON)
+                        .content(QUOTE).accept(CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode quote = cborMapper.readTree(body);
+        assertEquals("PERSONAL_LOAN", quote.get("loanType").asText());
+        assertTrue(quote.get("monthlyPayment").isNumber());
+    }
+
+    @Test
+    void testSmileIsServedOnRequest() throws Exception {
+        byte[] body = mockMvc.perform(post("/api/calculator/quote").contentType(MediaType.APPLICATION_JSON)
+                        .content(QUOTE).accept(SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertEquals("PERSONAL_LOAN", smileMapper.readTree(body).get("loanType").asText());
+    }
+
+    @Test
+    void testCborRequestBodyIsRead() throws Exception {
+        byte[] request = cborMapper.writeValueAsBytes(Map.of("loanType", "HOUSE_LOAN", "amount", 250000));
+
+        byte[] body = mockMvc.perform(post("/api/calculator/quote").contentType(CBOR).content(request).accept(CBOR))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode quote = cborMapper.readTree(body);
+        assertEquals("HOUSE_LOAN", quote.get("loanType").asText());
+        assertEquals(0, new BigDecimal("250000.00").compareTo(quote.get("amount").decimalValue()));
+    }
+
+    // The binary mappers share the JSON mapper's settings, so dates stay ISO strings
+    @Test
+    void testBinaryEncodingsKeepIsoDates() throws Exception {
+        byte[] body = mockMvc.perform(get("/api/loans/status/SUBMITTED").accept(CBOR))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode createdAt = cborMapper.readTree(body).get(0).get("createdAt");
+        assertTrue(createdAt.isTextual(), createdAt.toString());
+    }
+}
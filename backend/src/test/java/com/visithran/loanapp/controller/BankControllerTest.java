@@ -0,0 +1,76 @@
+package com.visithran.loanapp.controller;
+
+import com.visithran.loanapp.entity.BankBranch;
+import com.visithran.loanapp.entity.LoanApplication;
+import com.visithran.loanapp.entity.User;
+import com.visithran.loanapp.repository.BankBranchRepository;
+import com.visithran.loanapp.repository.LoanApplicationRepository;
+import com.visithran.loanapp.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class BankControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BankBranchRepository bankBranchRepository;
+
+    @Autowired
+    private LoanApplicationRepository loanApplicationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        loanApplicationRepository.deleteAll();
+        bankBranchRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void testDeletingBranchWithApplicationsDeactivatesIt() throws Exception {
+        BankBranch branch = new BankBranch();
+        branch.setBranchName("Main Branch - Downtown");
+        branch.setLocation("City");
+        branch = bankBranchRepository.save(branch);
+
+        User applicant = new User();
+        applicant.setName("Test User");
+        applicant.setEmail("applicant@example.com");
+        applicant.setRole(User.Role.APPLICANT);
+        LoanApplication application = new LoanApplication();
+        application.setApplicant(userRepository.save(applicant));
+        application.setLoanType(LoanApplication.LoanType.PERSONAL_LOAN);
+        application.setAmount(new BigDecimal("10000"));
+        application.setSelectedBankBranch(branch.getBranchName());
+        application.setBankBranchId(branch.getId());
+        application = loanApplicationRepository.save(application);
+
+        mockMvc.perform(delete("/api/banks/{id}", branch.getId()))
+                .andExpect(status().isNoContent());
+
+        assertFalse(bankBranchRepository.findById(branch.getId()).orElseThrow().isActive());
+        assertEquals(branch.getId(), loanApplicationRepository.findById(application.getId()).orElseThrow().getBankBranchId());
+        mockMvc.perform(get("/api/banks"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+}
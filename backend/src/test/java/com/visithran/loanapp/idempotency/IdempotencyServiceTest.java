@@ -0,0 +1,168 @@
+package com.visithran.loanapp.idempotency;
+
+import com.visithran.loanapp.dto.UserResponse;
+import com.visithran.loanapp.entity.IdempotencyRecord;
+import com.visithran.loanapp.entity.User;
+import com.visithran.loanapp.repository.IdempotencyRecordRepository;
+import com.visithran.loanapp.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("h2")
+class IdempotencyServiceTest {
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private AutowireCapableBeanFactory beanFactory;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @SpyBean
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        idempotencyRecordRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void testRetryReplaysStoredResponse() {
+        ResponseEntity<UserResponse> first = execute(idempotencyService, "key-1", "payload", createUser("a@example.com"));
+        ResponseEntity<UserResponse> retry = execute(idempotencyService, "key-1", "payload", createUser("a@example.com"));
+
+        assertEquals(HttpStatus.OK, first.getStatusCode());
+        assertNull(first.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        assertEquals(HttpStatus.OK, retry.getStatusCode());
+        assertEquals("true", retry.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        assertEquals(first.getBody(), retry.getBody());
+        assertEquals(1, executions.get());
+        assertEquals(1, userRepository.count());
+    }
+
+    @Test
+    void testRetryWhileInFlightIsRejected() {
+        IdempotencyService otherInstance = beanFactory.createBean(IdempotencyService.class);
+        AtomicInteger sameInstanceStatus = new AtomicInteger();
+        AtomicInteger otherInstanceStatus = new AtomicInteger();
+
+        execute(idempotencyService, "key-2", "payload", () -> {
+            sameInstanceStatus.set(statusOf(() -> execute(idempotencyService, "key-2", "payload", createUser("b@example.com"))));
+            otherInstanceStatus.set(statusOf(() -> execute(otherInstance, "key-2", "payload", createUser("b@example.com"))));
+            return createUser("b@example.com").get();
+        });
+
+        assertEquals(HttpStatus.CONFLICT.value(), sameInstanceStatus.get());
+        assertEquals(HttpStatus.CONFLICT.value(), otherInstanceStatus.get());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void testReusedKeyWithDifferentPayloadIsRejected() {
+        execute(idempotencyService, "key-3", "payload", createUser("c@example.com"));
+
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY.value(),
+                statusOf(() -> execute(idempotencyService, "key-3", "other payload", createUser("c@example.com"))));
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY.value(), statusOf(() -> execute(
+                beanFactory.createBean(IdempotencyService.class), "key-3", "other payload", createUser("c@example.com"))));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void testOtherInstanceReplaysFromDatabase() {
+        IdempotencyService otherInstance = beanFactory.createBean(IdempotencyService.class);
+
+        ResponseEntity<UserResponse> first = execute(idempotencyService, "key-4", "payload", createUser("d@example.com"));
+        ResponseEntity<UserResponse> retry = execute(otherInstance, "key-4", "payload", createUser("d@example.com"));
+
+        assertEquals("true", retry.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        assertEquals(first.getBody(), retry.getBody());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void testAbandonedClaimIsTakenOverAfterTimeout() {
+        // The instance dies after claiming the key: its release never reaches the database
+        doReturn(0).when(idempotencyRecordRepository).release(anyString());
+        assertThrows(IllegalStateException.class, () -> execute(idempotencyService, "key-5", "payload", () -> {
+            throw new IllegalStateException("instance stopped");
+        }));
+        IdempotencyService otherInstance = beanFactory.createBean(IdempotencyService.class);
+
+        assertEquals(HttpStatus.CONFLICT.value(),
+                statusOf(() -> execute(otherInstance, "key-5", "payload", createUser("e@example.com"))));
+
+        IdempotencyRecord claim = idempotencyRecordRepository.findAll().get(0);
+        claim.setCreatedAt(LocalDateTime.now().minusMinutes(5));
+        idempotencyRecordRepository.save(claim);
+        ResponseEntity<UserResponse> takenOver = execute(otherInstance, "key-5", "payload", createUser("e@example.com"));
+
+        assertEquals(HttpStatus.OK, takenOver.getStatusCode());
+        assertNull(takenOver.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        assertEquals(1, executions.get());
+        assertEquals(1, userRepository.count());
+    }
+
+    @Test
+    void testFailedCompletionRollsBackWriteAndReleasesKey() {
+        doThrow(new DataAccessResourceFailureException("database unavailable"))
+                .when(idempotencyRecordRepository).complete(anyString(), anyInt(), anyString());
+
+        assertThrows(DataAccessResourceFailureException.class,
+                () -> execute(idempotencyService, "key-6", "payload", createUser("f@example.com")));
+        assertEquals(0, userRepository.count());
+        assertEquals(0, idempotencyRecordRepository.count());
+
+        reset(idempotencyRecordRepository);
+        ResponseEntity<UserResponse> retry = execute(idempotencyService, "key-6", "payload", createUser("f@example.com"));
+
+        assertEquals(HttpStatus.OK, retry.getStatusCode());
+        assertNull(retry.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        assertEquals(2, executions.get());
+        assertEquals(1, userRepository.count());
+    }
+
+    private static ResponseEntity<UserResponse> execute(IdempotencyService service, String key, String payload,
+                                                        Supplier<UserResponse> action) {
+        return service.execute(key, "test", payload, UserResponse.class, action);
+    }
+
+    private Supplier<UserResponse> createUser(String email) {
+        return () -> {
+            executions.incrementAndGet();
+            User user = new User();
+            user.setName("Test User");
+            user.setEmail(email);
+            user.setRole(User.Role.APPLICANT);
+            return UserResponse.fromUser(userRepository.save(user));
+        };
+    }
+
+    private static int statusOf(Runnable call) {
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, call::run);
+        return e.getStatusCode().value();
+    }
+}
@@ -0,0 +1,90 @@
+package com.visithran.loanapp.idempotency;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyStoreTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void testClaimThenReplay() {
+        IdempotencyStore store = new IdempotencyStore();
+        long now = 10 * SECOND;
+
+        assertNull(store.claim("key", "fp", now, 60 * SECOND));
+
+        IdempotencyStore.Entry inFlight = store.claim("key", "fp", now, 60 * SECOND);
+        assertNotNull(inFlight);
+        assertFalse(inFlight.isCompleted());
+
+        store.complete("key", 200, "{\"id\":1}");
+        IdempotencyStore.Entry completed = store.claim("key", "fp", now + SECOND, 60 * SECOND);
+        assertTrue(completed.isCompleted());
+        assertEquals(200, completed.getStatus());
+        assertEquals("{\"id\":1}", completed.getBody());
+        assertEquals("fp", completed.getFingerprint());
+    }
+
+    @Test
+    void testReleaseAllowsRetryButKeepsCompletedEntries() {
+        IdempotencyStore store = new IdempotencyStore();
+        long now = 10 * SECOND;
+
+        store.claim("failed", "fp", now, 60 * SECOND);
+        store.release("failed");
+        assertNull(store.claim("failed", "fp", now, 60 * SECOND));
+
+        store.claim("done", "fp", now, 60 * SECOND);
+        store.complete("done", 200, "{}");
+        store.release("done");
+        assertNotNull(store.claim("done", "fp", now, 60 * SECOND));
+    }
+
+    @Test
+    void testExpiredEntriesAreReclaimedAndEvicted() {
+        IdempotencyStore store = new IdempotencyStore();
+        long now = 10 * SECOND;
+        store.claim("old", "fp", now, SECOND);
+        store.complete("old", 200, "{}");
+        store.claim("new", "fp", now, 60 * SECOND);
+
+        assertNull(store.claim("old", "other", now + 2 * SECOND, SECOND));
+
+        store.evictExpired(now + 10 * SECOND);
+        assertEquals(1, store.size());
+        assertNotNull(store.claim("new", "fp", now + 10 * SECOND, 60 * SECOND));
+    }
+
+    @Test
+    void testConcurrentDuplicatesHaveSingleOwner() throws InterruptedException {
+        IdempotencyStore store = new IdempotencyStore();
+        int threads = 8;
+        AtomicInteger owners = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < threads; i++) {
+            executor.submit(() -> {
+                start.await();
+                for (int k = 0; k < 1000; k++) {
+                    if (store.claim("key-" + k, "fp", 0, 60 * SECOND) == null) {
+                        owners.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(1000, owners.get());
+    }
+}
@@ -0,0 +1,195 @@
+package com.visithran.loanapp.monitoring;
+
+import com.visithran.loanapp.entity.BankBranch;
+import com.visithran.loanapp.entity.LoanApplication;
+import com.visithran.loanapp.entity.User;
+import com.visithran.loanapp.repository.BankBranchRepository;
+import com.visithran.loanapp.repository.LoanApplicationRepository;
+import com.visithran.loanapp.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Calls the real endpoints in strict mode, so any handler that exceeds its
+// @QueryBudget fails here with QueryBudgetExceededException
+@SpringBootTest(properties = "loan.query-budget.fail-on-violation=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class QueryBudgetEndpointsTest {
+
+    private static final String ADMIN = "admin@example.com";
+    private static final String APPLICANT = "applicant@example.com";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private QueryBudgetFilter queryBudgetFilter;
+
+    @Autowired
+    private BankBranchRepository bankBranchRepository;
+
+    @Autowired
+    private LoanApplicationRepository loanApplicationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private long violationsBefore;
+
+    private Long branchId;
+
+    private Long firstApplicationId;
+
+    private Long secondApplicationId;
+
+    // Seeded behind the API, as a restart over an existing database would be
+    @BeforeEach
+    void setUp() {
+        loanApplicationRepository.deleteAll();
+        userRepository.deleteAll();
+        bankBranchRepository.deleteAll();
+
+        BankBranch branch = new BankBranch();
+        branch.setBranchName("Main Branch - Downtown");
+        branch.setLocation("City");
+        branchId = bankBranchRepository.save(branch).getId();
+
+        createUser(ADMIN, User.Role.ADMIN);
+        User applicant = createUser(APPLICANT, User.Role.APPLICANT);
+        firstApplicationId = createApplication(applicant, "15000");
+        secondApplicationId = createApplication(applicant, "250000");
+
+        violationsBefore = queryBudgetFilter.getViolations();
+    }
+
+    @AfterEach
+    void tearDown() {
+        assertEquals(violationsBefore, queryBudgetFilter.getViolations());
+    }
+
+    // A fresh context, so this is the first listing request after startup
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.BEFORE_METHOD)
+    void testFirstListingAfterStartupStaysWithinBudget() throws Exception {
+        mockMvc.perform(get("/api/loans/status/SUBMITTED"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testListingEndpointsStayWithinBudget() throws Exception {
+        mockMvc.perform(get("/api/loans/status/SUBMITTED").param("fields", "id,status,applicant"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/loans/bin"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/loans").param("search", "applicant").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(2));
+        mockMvc.perform(get("/api/loans").param("fields", "id,amount,selectedBankBranch"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/loans/my").param("userEmail", APPLICANT))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/loans/my").param("userEmail", APPLICANT).param("fields", "id,status"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/loans/filter").param("status", "SUBMITTED").param("minAmount", "10000")
+                        .param("branchId", String.valueOf(branchId)))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/reports/branches/daily").param("branch", "Main Branch - Downtown"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testSubmissionStaysWithinBudget() throws Exception {
+        mockMvc.perform(post("/api/loans").param("userEmail", APPLICANT)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"loanType\":\"PERSONAL_LOAN\",\"amount\":20000,"
+                                + "\"description\":\"Repairs\",\"selectedBankBranch\":\"Main Branch - Downtown\"}"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testDecisionsStayWithinBudget() throws Exception {
+        mockMvc.perform(put("/api/loans/{id}/view", firstApplicationId))
+                .andExpect(status().isOk());
+        mockMvc.perform(put("/api/loans/{id}/approve", firstApplicationId))
+                .andExpect(status().isOk());
+        mockMvc.perform(put("/api/loans/{id}/reject", secondApplicationId).param("rejectionReason", "Incomplete"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testReviewQueueStaysWithinBudget() throws Exception {
+        mockMvc.perform(post("/api/loans/review-queue/claim").param("adminEmail", ADMIN).param("limit", "2"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/loans/review-queue/mine").param("adminEmail", ADMIN))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/loans/review-queue/renew").param("adminEmail", ADMIN))
+                .andExpect(status().isOk());
+        mockMvc.perform(put("/api/loans/{id}/view", firstApplicationId).param("adminEmail", ADMIN))
+                .andExpect(status().isOk());
+        mockMvc.perform(put("/api/loans/{id}/approve", firstApplicationId).param("adminEmail", ADMIN))
+                .andExpect(status().isOk());
+        mockMvc.perform(put("/api/loans/{id}/reject", secondApplicationId).param("adminEmail", "other@example.com")
+                        .param("rejectionReason", "Incomplete"))
+                .andExpect(status().isConflict());
+        mockMvc.perform(post("/api/loans/review-queue/release").param("adminEmail", ADMIN))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testBankAndUserEndpointsStayWithinBudget() throws Exception {
+        mockMvc.perform(get("/api/banks"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/banks/{id}", branchId))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/banks").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"branchName\":\"Harbour Branch\",\"location\":\"Port\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(put("/api/banks/{id}", branchId).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"branchName\":\"Main Branch - Uptown\",\"location\":\"City\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/api/banks/{id}", branchId))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(post("/api/users/login").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"New User\",\"email\":\"new@example.com\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/users/email/{email}", APPLICANT))
+                .andExpect(status().isOk());
+        mockMvc.perform(put("/api/users/{email}/promote-admin", APPLICANT))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/calculator/quote").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"loanType\":\"PERSONAL_LOAN\",\"amount\":100000}"))
+                .andExpect(status().isOk());
+    }
+
+    private User createUser(String email, User.Role role) {
+        User user = new User();
+        user.setName("Test User");
+        user.setEmail(email);
+        user.setRole(role);
+        return userRepository.save(user);
+    }
+
+    private Long createApplication(User applicant, String amount) {
+        LoanApplication application = new LoanApplication();
+        application.setApplicant(applicant);
+        application.setLoanType(LoanApplication.LoanType.PERSONAL_LOAN);
+        application.setAmount(new BigDecimal(amount));
+        application.setSelectedBankBranch("Main Branch - Downtown");
+        application.setBankBranchId(branchId);
+        return loanApplicationRepository.save(application).getId();
+    }
+}
@@ -0,0 +1,119 @@
+package com.visithran.loanapp.monitoring;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.method.HandlerMethod;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryBudgetFilterTest {
+
+    private QueryBudgetInterceptor interceptor;
+    private QueryBudgetFilter filter;
+
+    private final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/test");
+
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @BeforeEach
+    void setUp() {
+        interceptor = new QueryBudgetInterceptor();
+        ReflectionTestUtils.setField(interceptor, "defaultBudget", 5);
+        filter = new QueryBudgetFilter();
+        ReflectionTestUtils.setField(filter, "failOnViolation", true);
+    }
+
+    @Test
+    void testWithinBudgetPasses() throws Exception {
+        dispatch("twoStatements", 2, false);
+
+        assertEquals("ok", response.getContentAsString());
+        assertEquals(0, filter.getViolations());
+    }
+
+    @Test
+    void testOverBudgetFailsBeforeResponseIsWritten() throws Exception {
+        assertThrows(QueryBudgetExceededException.class, () -> dispatch("twoStatements", 3, false));
+
+        assertEquals("", response.getContentAsString());
+        assertFalse(response.isCommitted());
+        assertEquals(1, filter.getViolations());
+    }
+
+    @Test
+    void testThrowingHandlerIsStillChecked() {
+        ReflectionTestUtils.setField(filter, "failOnViolation", false);
+
+        assertThrows(IllegalStateException.class, () -> dispatch("twoStatements", 3, true));
+        assertEquals(1, filter.getViolations());
+    }
+
+    @Test
+    void testOverBudgetIsOnlyCountedWhenNotStrict() throws Exception {
+        ReflectionTestUtils.setField(filter, "failOnViolation", false);
+
+        dispatch("defaultBudget", 6, false);
+
+        assertEquals("ok", response.getContentAsString());
+        assertEquals(1, filter.getViolations());
+    }
+
+    @Test
+    void testUnlimitedBudgetNeverViolates() throws Exception {
+        dispatch("unlimited", 1000, false);
+
+        assertEquals(0, filter.getViolations());
+    }
+
+    @Test
+    void testCounterIsClearedAfterRequest() throws Exception {
+        dispatch("twoStatements", 2, false);
+
+        StatementCounter.increment();
+        assertEquals(0, StatementCounter.current());
+    }
+
+    // Runs the filter around a stand-in for the dispatcher: the interceptor resolves the
+    // budget, the handler executes statements and then writes or throws
+    private void dispatch(String methodName, int statements, boolean fail) throws Exception {
+        HandlerMethod handler = new HandlerMethod(new TestController(), TestController.class.getMethod(methodName));
+        HttpServlet dispatcher = new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                interceptor.preHandle(req, resp, handler);
+                for (int i = 0; i < statements; i++) {
+                    StatementCounter.increment();
+                }
+                if (fail) {
+                    throw new IllegalStateException("handler failed");
+                }
+                resp.getWriter().write("ok");
+                resp.flushBuffer();
+            }
+        };
+        filter.doFilter(request, response, new MockFilterChain(dispatcher));
+    }
+
+    static class TestController {
+
+        @QueryBudget(2)
+        public void twoStatements() {
+        }
+
+        public void defaultBudget() {
+        }
+
+        @QueryBudget(QueryBudget.UNLIMITED)
+        public void unlimited() {
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.visithran.loanapp.monitoring;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class StatementCountingDataSourceTest {
+
+    @AfterEach
+    void tearDown() {
+        StatementCounter.stop();
+    }
+
+    @Test
+    void testStatementsAreCountedAndForwarded() throws Exception {
+        Connection target = mock(Connection.class);
+        Connection connection = countingDataSource(target).getConnection();
+        StatementCounter.start();
+
+        connection.prepareStatement("select 1");
+        connection.createStatement();
+        connection.getAutoCommit();
+
+        assertEquals(2, StatementCounter.current());
+        verify(target).prepareStatement("select 1");
+        verify(target).getAutoCommit();
+    }
+
+    @Test
+    void testIdentityMethodsUseTheProxy() throws Exception {
+        Connection target = mock(Connection.class);
+        DataSource dataSource = countingDataSource(target);
+        Connection first = dataSource.getConnection();
+        Connection second = dataSource.getConnection();
+
+        assertEquals(first, first);
+        assertNotEquals(first, second);
+        assertNotEquals(first, target);
+        assertEquals(2, Set.of(first, second).size());
+        assertTrue(first.toString().startsWith("StatementCountingConnection@"));
+    }
+
+    private static DataSource countingDataSource(Connection target) throws Exception {
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(target);
+        return new StatementCountingDataSource(dataSource);
+    }
+}
@@ -0,0 +1,145 @@
+package com.visithran.loanapp.repository;
+
+import com.visithran.loanapp.dto.LoanApplicationField;
+import com.visithran.loanapp.dto.LoanApplicationResponse;
+import com.visithran.loanapp.entity.LoanApplication;
+import com.visithran.loanapp.entity.User;
+import com.visithran.loanapp.support.RecordingStatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.visithran.loanapp.support.RecordingStatementInspector")
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class LoanApplicationFieldsRepositoryTest {
+
+    private static final Pattern USERS_TABLE = Pattern.compile("\\busers\\b", Pattern.CASE_INSENSITIVE);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private LoanApplicationRepository loanApplicationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        loanApplicationRepository.deleteAll();
+        userRepository.deleteAll();
+
+        User alice = createUser("Alice Example", "alice@example.com");
+        User bob = createUser("Bob Example", "bob@example.com");
+        createApplication(alice, "10000");
+        createApplication(bob, "20000");
+        createApplication(alice, "30000");
+        createApplication(bob, "40000");
+        createApplication(alice, "50000");
+        RecordingStatementInspector.clear();
+    }
+
+    @Test
+    void testIdAndStatusReturnOnlyThoseKeysWithoutJoiningUsers() throws Exception {
+        mockMvc.perform(get("/api/loans").param("fields", "id,status").param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(5))
+                .andExpect(jsonPath("$.content", hasSize(5)))
+                .andExpect(jsonPath("$.content[0].*", hasSize(2)))
+                .andExpect(jsonPath("$.content[0].id").isNumber())
+                .andExpect(jsonPath("$.content[0].status").value("SUBMITTED"));
+        mockMvc.perform(get("/api/loans/status/SUBMITTED").param("fields", "id,status"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(5)))
+                .andExpect(jsonPath("$[0].*", hasSize(2)));
+
+        List<String> statements = RecordingStatementInspector.statements();
+        assertFalse(statements.isEmpty());
+        for (String sql : statements) {
+            assertFalse(USERS_TABLE.matcher(sql).find(), sql);
+            assertFalse(sql.toLowerCase().contains("description"), sql);
+        }
+    }
+
+    @Test
+    void testApplicantFieldJoinsUsers() {
+        List<LoanApplicationResponse> responses = loanApplicationRepository.findFields(
+                LoanApplicationSpecifications.searchTerm("bob"), EnumSet.of(LoanApplicationField.APPLICANT),
+                PageRequest.of(0, 10, Sort.by("amount")));
+
+        assertEquals(2, responses.size());
+        assertEquals("Bob Example", responses.get(0).getApplicant().getName());
+        assertEquals("bob@example.com", responses.get(1).getApplicant().getEmail());
+        assertNull(responses.get(0).getId());
+        assertNull(responses.get(0).getAmount());
+    }
+
+    @Test
+    void testSearchWithFieldsPagesAndCounts() throws Exception {
+        mockMvc.perform(get("/api/loans").param("search", "alice").param("fields", "id,amount")
+                        .param("page", "0").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(3))
+                .andExpect(jsonPath("$.totalPages").value(2))
+                .andExpect(jsonPath("$.content", hasSize(2)))
+                .andExpect(jsonPath("$.content[0].*", hasSize(2)));
+        mockMvc.perform(get("/api/loans").param("search", "alice").param("fields", "id,amount")
+                        .param("page", "1").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(3))
+                .andExpect(jsonPath("$.content", hasSize(1)));
+        mockMvc.perform(get("/api/loans").param("search", "nobody").param("fields", "id"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(0))
+                .andExpect(jsonPath("$.content", hasSize(0)));
+    }
+
+    @Test
+    void testPagesSplitTheSearchResultsWithoutOverlap() {
+        List<Integer> amounts = new ArrayList<>();
+        for (int page = 0; page < 3; page++) {
+            loanApplicationRepository.findFields(LoanApplicationSpecifications.searchTerm("alice"),
+                            EnumSet.of(LoanApplicationField.AMOUNT), PageRequest.of(page, 2, Sort.by("amount")))
+                    .forEach(response -> amounts.add(response.getAmount().intValue()));
+        }
+
+        assertEquals(List.of(10000, 30000, 50000), amounts);
+    }
+
+    private User createUser(String name, String email) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(email);
+        user.setRole(User.Role.APPLICANT);
+        return userRepository.save(user);
+    }
+
+    private void createApplication(User applicant, String amount) {
+        LoanApplication application = new LoanApplication();
+        application.setApplicant(applicant);
+        application.setLoanType(LoanApplication.LoanType.PERSONAL_LOAN);
+        application.setAmount(new BigDecimal(amount));
+        application.setDescription("Home repairs");
+        application.setSelectedBankBranch("Main Branch - Downtown");
+        loanApplicationRepository.save(application);
+    }
+}
@@ -0,0 +1,207 @@
+package com.visithran.loanapp.repository;
+
+import com.visithran.loanapp.dto.FacetCount;
+import com.visithran.loanapp.dto.LoanApplicationResponse;
+import com.visithran.loanapp.dto.LoanFilterRequest;
+import com.visithran.loanapp.dto.LoanFilterResponse;
+import com.visithran.loanapp.entity.BankBranch;
+import com.visithran.loanapp.entity.LoanApplication;
+import com.visithran.loanapp.entity.User;
+import com.visithran.loanapp.service.BankBranchDirectory;
+import com.visithran.loanapp.service.LoanApplicationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("h2")
+class LoanApplicationFilterTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 10);
+
+    @Autowired
+    private LoanApplicationRepository loanApplicationRepository;
+
+    @Autowired
+    private BankBranchRepository bankBranchRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BankBranchDirectory bankBranchDirectory;
+
+    @Autowired
+    private LoanApplicationService loanApplicationService;
+
+    private User applicant;
+
+    private Long north;
+
+    private Long south;
+
+    private final Map<String, Long> ids = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        loanApplicationRepository.deleteAll();
+        bankBranchRepository.deleteAll();
+        userRepository.deleteAll();
+        ids.clear();
+
+        applicant = new User();
+        applicant.setName("Test User");
+        applicant.setEmail("applicant@example.com");
+        applicant.setRole(User.Role.APPLICANT);
+        applicant = userRepository.save(applicant);
+        north = createBranch("North Branch");
+        south = createBranch("South Branch");
+        bankBranchDirectory.reload();
+
+        create("small-personal-north", LoanApplication.Status.SUBMITTED, LoanApplication.LoanType.PERSONAL_LOAN, "5000", north, 0);
+        create("large-personal-north", LoanApplication.Status.APPROVED, LoanApplication.LoanType.PERSONAL_LOAN, "80000", north, 1);
+        create("personal-south", LoanApplication.Status.REJECTED, LoanApplication.LoanType.PERSONAL_LOAN, "40000", south, 2);
+        create("house-north", LoanApplication.Status.APPROVED, LoanApplication.LoanType.HOUSE_LOAN, "900000", north, 3);
+        create("auto-south", LoanApplication.Status.SUBMITTED, LoanApplication.LoanType.AUTO_LOAN, "30000", south, 4);
+        create("auto-unassigned", LoanApplication.Status.SUBMITTED, LoanApplication.LoanType.AUTO_LOAN, "20000", null, 5);
+    }
+
+    @Test
+    void testEmptyFilterMatchesEverything() {
+        assertEquals(6, matching(new LoanFilterRequest()).size());
+    }
+
+    @Test
+    void testCombinesEveryCriterion() {
+        LoanFilterRequest filter = new LoanFilterRequest();
+        filter.setStatus(List.of("submitted", "APPROVED"));
+        filter.setLoanType(List.of("PERSONAL_LOAN", "AUTO_LOAN"));
+        filter.setBranchId(List.of(north, south));
+        filter.setMinAmount(new BigDecimal("5000"));
+        filter.setMaxAmount(new BigDecimal("80000"));
+        filter.setFrom(DAY);
+        filter.setTo(DAY.plusDays(4));
+
+        assertEquals(List.of("small-personal-north", "large-personal-north", "auto-south"), matching(filter));
+
+        filter.setMinAmount(new BigDecimal("5000.01"));
+        filter.setTo(DAY.plusDays(3));
+        assertEquals(List.of("large-personal-north"), matching(filter));
+    }
+
+    @Test
+    void testDateRangeIncludesWholeLastDay() {
+        LoanFilterRequest filter = new LoanFilterRequest();
+        filter.setFrom(DAY.plusDays(1));
+        filter.setTo(DAY.plusDays(2));
+
+        assertEquals(List.of("large-personal-north", "personal-south"), matching(filter));
+    }
+
+    @Test
+    void testEachFacetIgnoresOnlyItsOwnCriterion() {
+        LoanFilterRequest filter = new LoanFilterRequest();
+        filter.setStatus(List.of("APPROVED"));
+        filter.setLoanType(List.of("PERSONAL_LOAN"));
+
+        // Personal loans of every status
+        assertEquals(Map.of(LoanApplication.Status.SUBMITTED, 1L, LoanApplication.Status.APPROVED, 1L,
+                        LoanApplication.Status.REJECTED, 1L),
+                loanApplicationRepository.countGroupedBy(
+                        LoanApplicationSpecifications.matchingExcept(filter, LoanFacet.STATUS), LoanFacet.STATUS));
+        // Approved applications of every type
+        assertEquals(Map.of(LoanApplication.LoanType.PERSONAL_LOAN, 1L, LoanApplication.LoanType.HOUSE_LOAN, 1L),
+                loanApplicationRepository.countGroupedBy(
+                        LoanApplicationSpecifications.matchingExcept(filter, LoanFacet.LOAN_TYPE), LoanFacet.LOAN_TYPE));
+        // Approved personal loans in every branch
+        assertEquals(Map.of(north, 1L),
+                loanApplicationRepository.countGroupedBy(
+                        LoanApplicationSpecifications.matchingExcept(filter, LoanFacet.BANK_BRANCH), LoanFacet.BANK_BRANCH));
+    }
+
+    @Test
+    void testFilterResponseCountsFacetsAndLabelsBranches() {
+        LoanFilterRequest filter = new LoanFilterRequest();
+        filter.setLoanType(List.of("AUTO_LOAN"));
+        filter.setBranchId(List.of(south));
+
+        LoanFilterResponse response = loanApplicationService.filterApplications(filter,
+                PageRequest.of(0, 10, Sort.by("id")));
+
+        assertEquals(List.of(ids.get("auto-south")),
+                response.getApplications().map(LoanApplicationResponse::getId).getContent());
+        assertEquals(Map.of("SUBMITTED", 1L), counts(response.getStatusCounts()));
+        assertEquals(Map.of("PERSONAL_LOAN", 1L, "AUTO_LOAN", 1L), counts(response.getLoanTypeCounts()));
+
+        Map<String, FacetCount> branches = response.getBranchCounts().stream()
+                .collect(Collectors.toMap(FacetCount::getLabel, count -> count));
+        // The branch criterion is ignored, the loan type is not: North has no auto loans
+        assertEquals(2, branches.size());
+        assertEquals(String.valueOf(south), branches.get("South Branch").getValue());
+        assertEquals(1L, branches.get("South Branch").getCount());
+        // Not yet backfilled: a real null, not the string "null"
+        assertNull(branches.get("Unassigned").getValue());
+        assertEquals(1L, branches.get("Unassigned").getCount());
+    }
+
+    @Test
+    void testUnknownEnumValueIsBadRequest() {
+        LoanFilterRequest filter = new LoanFilterRequest();
+        filter.setStatus(List.of("PENDING"));
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> LoanApplicationSpecifications.matching(filter));
+        assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode());
+    }
+
+    private List<String> matching(LoanFilterRequest filter) {
+        Map<Long, String> namesById = ids.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getValue, Map.Entry::getKey));
+        return loanApplicationRepository.findAll(LoanApplicationSpecifications.matching(filter), Sort.by("createdAt"))
+                .stream()
+                .map(application -> namesById.get(application.getId()))
+                .collect(Collectors.toList());
+    }
+
+    private static Map<String, Long> counts(List<FacetCount> facetCounts) {
+        return facetCounts.stream().collect(Collectors.toMap(FacetCount::getValue, FacetCount::getCount));
+    }
+
+    private Long createBranch(String name) {
+        BankBranch branch = new BankBranch();
+        branch.setBranchName(name);
+        branch.setLocation("City");
+        return bankBranchRepository.save(branch).getId();
+    }
+
+    private void create(String name, LoanApplication.Status status, LoanApplication.LoanType loanType, String amount,
+                        Long bankBranchId, int dayOffset) {
+        LoanApplication application = new LoanApplication();
+        application.setApplicant(applicant);
+        application.setLoanType(loanType);
+        application.setAmount(new BigDecimal(amount));
+        application.setSelectedBankBranch("Legacy Name");
+        application.setBankBranchId(bankBranchId);
+        application.setStatus(status);
+        application = loanApplicationRepository.save(application);
+        // createdAt is stamped on insert, so the test's dates are set afterwards
+        application.setCreatedAt(DAY.plusDays(dayOffset).atTime(12, 0));
+        loanApplicationRepository.save(application);
+        ids.put(name, application.getId());
+    }
+}
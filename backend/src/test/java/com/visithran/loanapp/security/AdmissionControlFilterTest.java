@@ -0,0 +1,72 @@
+package com.visithran.loanapp.security;
+
+import com.visithran.loanapp.LoanAppApplication;
+import com.visithran.loanapp.config.AdmissionControlProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControlFilterTest {
+
+    private AdmissionControlFilter admissionControlFilter;
+
+    @BeforeEach
+    void setUp() {
+        AdmissionControlProperties properties = new AdmissionControlProperties();
+        AdmissionControlProperties.Limits limits = new AdmissionControlProperties.Limits();
+        limits.setRequestsPerSecond(0.001);
+        limits.setBurst(1);
+        properties.getLimits().put(EndpointClass.SUBMISSION, limits);
+
+        admissionControlFilter = new AdmissionControlFilter();
+        ReflectionTestUtils.setField(admissionControlFilter, "properties", properties);
+        ReflectionTestUtils.setField(admissionControlFilter, "corsConfigurationSource",
+                new LoanAppApplication().corsConfigurationSource());
+        admissionControlFilter.init();
+    }
+
+    @Test
+    void testRejectionCarriesCorsHeadersForAllowedOrigin() throws Exception {
+        assertEquals(200, submit("10.0.0.1", "http://localhost:8081").getStatus());
+
+        MockHttpServletResponse rejected = submit("10.0.0.1", "http://localhost:8081");
+
+        assertEquals(429, rejected.getStatus());
+        assertNotNull(rejected.getHeader("Retry-After"));
+        assertEquals("http://localhost:8081", rejected.getHeader("Access-Control-Allow-Origin"));
+        assertEquals("Retry-After", rejected.getHeader("Access-Control-Expose-Headers"));
+    }
+
+    @Test
+    void testRejectionOmitsCorsHeadersForOtherOrigins() throws Exception {
+        submit("10.0.0.1", null);
+
+        MockHttpServletResponse rejected = submit("10.0.0.1", "http://evil.example");
+
+        assertEquals(429, rejected.getStatus());
+        assertNull(rejected.getHeader("Access-Control-Allow-Origin"));
+    }
+
+    @Test
+    void testClientsAreLimitedSeparately() throws Exception {
+        submit("10.0.0.1", null);
+
+        assertEquals(200, submit("10.0.0.2", null).getStatus());
+    }
+
+    private MockHttpServletResponse submit(String clientAddress, String origin) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/loans");
+        request.setRemoteAddr(clientAddress);
+        if (origin != null) {
+            request.addHeader("Origin", origin);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        admissionControlFilter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
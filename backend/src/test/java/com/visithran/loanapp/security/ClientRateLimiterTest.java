@@ -0,0 +1,78 @@
+package com.visithran.loanapp.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClientRateLimiterTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void testBurstThenRefill() {
+        ClientRateLimiter rateLimiter = new ClientRateLimiter(2, 3);
+        long now = 10 * SECOND;
+
+        assertEquals(0, rateLimiter.tryAcquire("10.0.0.1", now));
+        assertEquals(0, rateLimiter.tryAcquire("10.0.0.1", now));
+        assertEquals(0, rateLimiter.tryAcquire("10.0.0.1", now));
+        assertEquals(SECOND / 2, rateLimiter.tryAcquire("10.0.0.1", now));
+
+        // Other clients are unaffected and a refilled token is available after the interval
+        assertEquals(0, rateLimiter.tryAcquire("10.0.0.2", now));
+        assertEquals(0, rateLimiter.tryAcquire("10.0.0.1", now + SECOND / 2));
+    }
+
+    @Test
+    void testEvictIdleDropsOnlyRefilledClients() {
+        ClientRateLimiter rateLimiter = new ClientRateLimiter(1, 2);
+        long now = 10 * SECOND;
+        rateLimiter.tryAcquire("idle", now);
+        rateLimiter.tryAcquire("busy", now + 5 * SECOND);
+
+        rateLimiter.evictIdle(now + 2 * SECOND);
+
+        assertEquals(1, rateLimiter.size());
+    }
+
+    @Test
+    void testNonPositiveRateIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new ClientRateLimiter(0, 5));
+        assertThrows(IllegalArgumentException.class, () -> new ClientRateLimiter(-1, 5));
+        assertThrows(IllegalArgumentException.class, () -> new ClientRateLimiter(Double.NaN, 5));
+    }
+
+    @Test
+    void testConcurrentCallersNeverExceedBurst() throws InterruptedException {
+        ClientRateLimiter rateLimiter = new ClientRateLimiter(0.001, 50);
+        long now = 10 * SECOND;
+        AtomicInteger admitted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 8; i++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                for (int j = 0; j < 100; j++) {
+                    if (rateLimiter.tryAcquire("shared", now) == 0) {
+                        admitted.incrementAndGet();
+                    }
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(50, admitted.get());
+    }
+}
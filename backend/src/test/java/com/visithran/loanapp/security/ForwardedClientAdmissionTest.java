@@ -0,0 +1,53 @@
+package com.visithran.loanapp.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The test client connects from loopback, which the default internal-proxies trust like a load balancer
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "loan.admission.enabled=true",
+        "loan.admission.limits.login.requests-per-second=0.001",
+        "loan.admission.limits.login.burst=1"
+})
+@ActiveProfiles("h2")
+class ForwardedClientAdmissionTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void testSpoofedForwardedForDoesNotGetNewBucket() {
+        assertEquals(200, login("198.51.100.1, 203.0.113.7", "first@example.com"));
+
+        // The client controls everything left of the address the balancer appended
+        assertEquals(429, login("198.51.100.2, 203.0.113.7", "second@example.com"));
+        assertEquals(429, login("198.51.100.3, 203.0.113.7", "third@example.com"));
+    }
+
+    @Test
+    void testForwardedClientsAreLimitedSeparately() {
+        assertEquals(200, login("203.0.113.20", "first@example.com"));
+
+        assertEquals(200, login("203.0.113.21", "second@example.com"));
+        assertEquals(429, login("203.0.113.21", "second@example.com"));
+    }
+
+    private int login(String forwardedFor, String email) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("X-Forwarded-For", forwardedFor);
+        Map<String, String> body = Map.of("name", "Test User", "email", email);
+        return restTemplate.postForEntity("/api/users/login", new HttpEntity<>(body, headers), String.class)
+                .getStatusCode().value();
+    }
+}
@@ -0,0 +1,108 @@
+package com.visithran.loanapp.service;
+
+import com.visithran.loanapp.entity.BankBranch;
+import com.visithran.loanapp.entity.LoanApplication;
+import com.visithran.loanapp.entity.User;
+import com.visithran.loanapp.repository.BankBranchRepository;
+import com.visithran.loanapp.repository.LoanApplicationRepository;
+import com.visithran.loanapp.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("h2")
+class BankBranchBackfillServiceTest {
+
+    @Autowired
+    private BankBranchBackfillService bankBranchBackfillService;
+
+    @Autowired
+    private BankBranchRepository bankBranchRepository;
+
+    @Autowired
+    private LoanApplicationRepository loanApplicationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User applicant;
+
+    @BeforeEach
+    void setUp() {
+        loanApplicationRepository.deleteAll();
+        bankBranchRepository.deleteAll();
+        userRepository.deleteAll();
+
+        applicant = new User();
+        applicant.setName("Test User");
+        applicant.setEmail("applicant@example.com");
+        applicant.setRole(User.Role.APPLICANT);
+        applicant = userRepository.save(applicant);
+    }
+
+    @Test
+    void testLinksApplicationsByBranchNameAcrossChunks() {
+        Long downtown = createBranch("Main Branch - Downtown", true);
+        Long closed = createBranch("Old Town", false);
+        Long first = createApplication("Main Branch - Downtown", null);
+        Long second = createApplication(" main branch - downtown", null);
+        Long third = createApplication("Old Town", null);
+        Long unknown = createApplication("Nowhere", null);
+        Long linked = createApplication("Main Branch - Downtown", closed);
+
+        Map<String, Long> summary = bankBranchBackfillService.backfill(2, 0);
+
+        assertEquals(4L, summary.get("scanned"));
+        assertEquals(3L, summary.get("updated"));
+        assertEquals(1L, summary.get("unmatched"));
+        assertEquals(downtown, branchIdOf(first));
+        assertEquals(downtown, branchIdOf(second));
+        assertEquals(closed, branchIdOf(third));
+        assertNull(branchIdOf(unknown));
+        assertEquals(closed, branchIdOf(linked));
+    }
+
+    @Test
+    void testSecondRunOnlyRevisitsUnmatchedApplications() {
+        createBranch("Main Branch - Downtown", true);
+        createApplication("Main Branch - Downtown", null);
+        createApplication("Nowhere", null);
+        bankBranchBackfillService.backfill(10, 0);
+
+        Map<String, Long> summary = bankBranchBackfillService.backfill(10, 0);
+
+        assertEquals(1L, summary.get("scanned"));
+        assertEquals(0L, summary.get("updated"));
+        assertEquals(1L, summary.get("unmatched"));
+    }
+
+    private Long createBranch(String name, boolean active) {
+        BankBranch branch = new BankBranch();
+        branch.setBranchName(name);
+        branch.setLocation("City");
+        branch.setActive(active);
+        return bankBranchRepository.save(branch).getId();
+    }
+
+    private Long createApplication(String branchName, Long bankBranchId) {
+        LoanApplication application = new LoanApplication();
+        application.setApplicant(applicant);
+        application.setLoanType(LoanApplication.LoanType.PERSONAL_LOAN);
+        application.setAmount(new BigDecimal("10000"));
+        application.setSelectedBankBranch(branchName);
+        application.setBankBranchId(bankBranchId);
+        return loanApplicationRepository.save(application).getId();
+    }
+
+    private Long branchIdOf(Long applicationId) {
+        return loanApplicationRepository.findById(applicationId).orElseThrow().getBankBranchId();
+    }
+}
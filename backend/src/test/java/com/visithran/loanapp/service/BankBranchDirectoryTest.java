@@ -0,0 +1,97 @@
+package com.visithran.loanapp.service;
+
+import com.visithran.loanapp.entity.BankBranch;
+import com.visithran.loanapp.repository.BankBranchRepository;
+import com.visithran.loanapp.repository.LoanApplicationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("h2")
+class BankBranchDirectoryTest {
+
+    @Autowired
+    private BankBranchDirectory bankBranchDirectory;
+
+    @Autowired
+    private BankBranchRepository bankBranchRepository;
+
+    @Autowired
+    private LoanApplicationRepository loanApplicationRepository;
+
+    @BeforeEach
+    void setUp() {
+        loanApplicationRepository.deleteAll();
+        bankBranchRepository.deleteAll();
+        bankBranchDirectory.reload();
+    }
+
+    @Test
+    void testLooksUpBranchesIgnoringCaseAndSpaces() {
+        BankBranch branch = createBranch("Main Branch - Downtown", true);
+        bankBranchDirectory.reload();
+
+        assertEquals(branch.getId(), bankBranchDirectory.idOf("  main branch - DOWNTOWN "));
+        assertEquals("Main Branch - Downtown", bankBranchDirectory.nameOf(branch.getId()));
+        assertNull(bankBranchDirectory.idOf("Nowhere"));
+        assertNull(bankBranchDirectory.idOf(null));
+        assertNull(bankBranchDirectory.nameOf(null));
+    }
+
+    @Test
+    void testInactiveBranchKeepsNameButTakesNoNewApplications() {
+        BankBranch branch = createBranch("Old Town", false);
+        bankBranchDirectory.reload();
+
+        assertNull(bankBranchDirectory.idOf("Old Town"));
+        assertEquals(branch.getId(), bankBranchDirectory.anyIdOf("Old Town"));
+        assertEquals("Old Town", bankBranchDirectory.nameOf(branch.getId()));
+    }
+
+    @Test
+    void testMissReloadsBranchAddedByAnotherInstance() {
+        createBranch("Main Branch - Downtown", true);
+        bankBranchDirectory.reload();
+
+        // Saved straight to the database, as another instance would, without a reload here
+        BankBranch added = createBranch("Harbour Branch", true);
+
+        assertEquals(added.getId(), bankBranchDirectory.idOf("Harbour Branch"));
+        assertEquals("Harbour Branch", bankBranchDirectory.nameOf(added.getId()));
+    }
+
+    @Test
+    void testMissReloadsClosedBranchForHistoricalLookups() {
+        bankBranchDirectory.reload();
+
+        BankBranch closed = createBranch("Old Town", false);
+
+        assertEquals(closed.getId(), bankBranchDirectory.anyIdOf("Old Town"));
+        assertNull(bankBranchDirectory.idOf("Old Town"));
+    }
+
+    @Test
+    void testRenamedBranchResolvesByNewName() {
+        BankBranch branch = createBranch("North Branch", true);
+        bankBranchDirectory.reload();
+
+        branch.setBranchName("North Branch - Uptown");
+        bankBranchRepository.save(branch);
+
+        assertEquals(branch.getId(), bankBranchDirectory.idOf("North Branch - Uptown"));
+        assertEquals("North Branch - Uptown", bankBranchDirectory.nameOf(branch.getId()));
+    }
+
+    private BankBranch createBranch(String name, boolean active) {
+        BankBranch branch = new BankBranch();
+        branch.setBranchName(name);
+        branch.setLocation("City");
+        branch.setActive(active);
+        return bankBranchRepository.save(branch);
+    }
+}
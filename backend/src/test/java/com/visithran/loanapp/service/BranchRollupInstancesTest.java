@@ -0,0 +1,118 @@
+package com.visithran.loanapp.service;
+
+import com.visithran.loanapp.entity.BankBranch;
+import com.visithran.loanapp.entity.BranchDailyRollup;
+import com.visithran.loanapp.entity.LoanApplication;
+import com.visithran.loanapp.entity.User;
+import com.visithran.loanapp.repository.BankBranchRepository;
+import com.visithran.loanapp.repository.BranchDailyRollupRepository;
+import com.visithran.loanapp.repository.LoanApplicationRepository;
+import com.visithran.loanapp.repository.RollupWatermarkRepository;
+import com.visithran.loanapp.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("h2")
+class BranchRollupInstancesTest {
+
+    @Autowired
+    private AutowireCapableBeanFactory beanFactory;
+
+    @Autowired
+    private BankBranchRepository bankBranchRepository;
+
+    @Autowired
+    private LoanApplicationRepository loanApplicationRepository;
+
+    @Autowired
+    private BranchDailyRollupRepository branchDailyRollupRepository;
+
+    @Autowired
+    private RollupWatermarkRepository rollupWatermarkRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        branchDailyRollupRepository.deleteAll();
+        rollupWatermarkRepository.deleteAll();
+        loanApplicationRepository.deleteAll();
+        bankBranchRepository.deleteAll();
+        userRepository.deleteAll();
+
+        User applicant = new User();
+        applicant.setName("Test User");
+        applicant.setEmail("applicant@example.com");
+        applicant.setRole(User.Role.APPLICANT);
+        applicant = userRepository.save(applicant);
+        for (int i = 0; i < 6; i++) {
+            BankBranch branch = new BankBranch();
+            branch.setBranchName("Branch " + i);
+            branch.setLocation("City");
+            branch = bankBranchRepository.save(branch);
+            for (int j = 0; j < 3; j++) {
+                LoanApplication application = new LoanApplication();
+                application.setApplicant(applicant);
+                application.setLoanType(LoanApplication.LoanType.PERSONAL_LOAN);
+                application.setAmount(new BigDecimal("10000"));
+                application.setSelectedBankBranch(branch.getBranchName());
+                application.setBankBranchId(branch.getId());
+                application.setStatus(j == 0 ? LoanApplication.Status.APPROVED : LoanApplication.Status.SUBMITTED);
+                loanApplicationRepository.save(application);
+            }
+        }
+    }
+
+    @Test
+    void testConcurrentRunsOnTwoInstancesTakeTurns() throws Exception {
+        // Each bean stands in for the rollup job of a separate instance
+        List<BranchRollupService> instances = List.of(beanFactory.createBean(BranchRollupService.class),
+                beanFactory.createBean(BranchRollupService.class));
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(instances.size());
+        try {
+            List<Future<Map<String, Long>>> runs = new ArrayList<>();
+            for (BranchRollupService instance : instances) {
+                runs.add(executor.submit(() -> {
+                    start.await();
+                    return instance.refreshRollups();
+                }));
+            }
+            start.countDown();
+
+            for (Future<Map<String, Long>> run : runs) {
+                Map<String, Long> summary = run.get(30, TimeUnit.SECONDS);
+                assertNull(summary.get("skipped"));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<BranchDailyRollup> rollups = branchDailyRollupRepository.findAll();
+        assertEquals(6, rollups.size());
+        for (BranchDailyRollup rollup : rollups) {
+            assertEquals(3, rollup.getApplicationCount());
+            assertEquals(1, rollup.getApprovedCount());
+        }
+        assertTrue(rollupWatermarkRepository.findAll().get(0).getWatermark().isAfter(LocalDateTime.of(1970, 1, 1, 0, 0)));
+    }
+}
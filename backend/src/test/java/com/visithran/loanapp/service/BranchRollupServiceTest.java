@@ -0,0 +1,71 @@
+package com.visithran.loanapp.service;
+
+import com.visithran.loanapp.config.BranchRollupProperties;
+import com.visithran.loanapp.entity.RollupWatermark;
+import com.visithran.loanapp.repository.BranchDailyRollupRepository;
+import com.visithran.loanapp.repository.BranchDay;
+import com.visithran.loanapp.repository.LoanApplicationRepository;
+import com.visithran.loanapp.repository.RollupWatermarkRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class BranchRollupServiceTest {
+
+    private LoanApplicationRepository loanApplicationRepository;
+    private BranchRollupService branchRollupService;
+
+    @BeforeEach
+    void setUp() {
+        loanApplicationRepository = mock(LoanApplicationRepository.class);
+        RollupWatermarkRepository rollupWatermarkRepository = mock(RollupWatermarkRepository.class);
+        when(rollupWatermarkRepository.findByNameForUpdate(anyString())).thenReturn(Optional.of(
+                new RollupWatermark("branch_daily_rollups_by_branch_id", LocalDateTime.of(1970, 1, 1, 0, 0))));
+
+        branchRollupService = new BranchRollupService();
+        ReflectionTestUtils.setField(branchRollupService, "loanApplicationRepository", loanApplicationRepository);
+        ReflectionTestUtils.setField(branchRollupService, "branchDailyRollupRepository", mock(BranchDailyRollupRepository.class));
+        ReflectionTestUtils.setField(branchRollupService, "rollupWatermarkRepository", rollupWatermarkRepository);
+        ReflectionTestUtils.setField(branchRollupService, "properties", new BranchRollupProperties());
+        ReflectionTestUtils.setField(branchRollupService, "bankBranchDirectory", mock(BankBranchDirectory.class));
+        ReflectionTestUtils.setField(branchRollupService, "transactionTemplate",
+                new TransactionTemplate(mock(PlatformTransactionManager.class)));
+    }
+
+    @Test
+    void testOnlyTouchedRunsOfDaysAreAggregated() {
+        LocalDate day = LocalDate.of(2024, 1, 10);
+        List<BranchDay> touched = List.of(branchDay(1L, day), branchDay(1L, day.plusDays(1)),
+                branchDay(1L, day.plusDays(30)), branchDay(1L, day.plusDays(365)));
+        when(loanApplicationRepository.findAllBranchDays()).thenReturn(touched);
+
+        Map<String, Long> summary = branchRollupService.refreshRollups();
+
+        assertEquals(4L, summary.get("days"));
+        verify(loanApplicationRepository).aggregateBranchDays(1L, day.atStartOfDay(), day.plusDays(2).atStartOfDay());
+        verify(loanApplicationRepository).aggregateBranchDays(1L, day.plusDays(30).atStartOfDay(),
+                day.plusDays(31).atStartOfDay());
+        verify(loanApplicationRepository).aggregateBranchDays(1L, day.plusDays(365).atStartOfDay(),
+                day.plusDays(366).atStartOfDay());
+        verify(loanApplicationRepository, times(3)).aggregateBranchDays(anyLong(), any(), any());
+    }
+
+    private static BranchDay branchDay(Long bankBranchId, LocalDate day) {
+        BranchDay branchDay = mock(BranchDay.class);
+        when(branchDay.getBankBranchId()).thenReturn(bankBranchId);
+        when(branchDay.getDay()).thenReturn(day);
+        return branchDay;
+    }
+}
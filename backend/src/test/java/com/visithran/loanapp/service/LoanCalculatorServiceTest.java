@@ -0,0 +1,140 @@
+package com.visithran.loanapp.service;
+
+import com.visithran.loanapp.config.LoanCalculatorProperties;
+import com.visithran.loanapp.dto.LoanQuoteRequest;
+import com.visithran.loanapp.dto.LoanQuoteResponse;
+import com.visithran.loanapp.entity.LoanApplication;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoanCalculatorServiceTest {
+
+    private LoanCalculatorService loanCalculatorService;
+
+    @BeforeEach
+    void setUp() {
+        LoanCalculatorProperties properties = new LoanCalculatorProperties();
+        for (LoanApplication.LoanType loanType : LoanApplication.LoanType.values()) {
+            LoanCalculatorProperties.Product product = new LoanCalculatorProperties.Product();
+            product.setAnnualRate(new BigDecimal("9.50"));
+            product.setDefaultTenureMonths(60);
+            product.setMaxTenureMonths(600);
+            properties.getProducts().put(loanType, product);
+        }
+        loanCalculatorService = new LoanCalculatorService();
+        ReflectionTestUtils.setField(loanCalculatorService, "properties", properties);
+    }
+
+    @Test
+    void testScheduleMatchesBigDecimalReference() {
+        Random random = new Random(42);
+        for (int run = 0; run < 20000; run++) {
+            long principal = 10_000L + (long) (random.nextDouble() * 10_000_000_000L);
+            int rateBps = random.nextInt(10) == 0 ? 0 : random.nextInt(LoanCalculatorService.MAX_RATE_BPS + 1);
+            int months = 1 + random.nextInt(360);
+
+            long[] expected = referenceSchedule(principal, rateBps, months);
+            long payment = LoanCalculatorService.monthlyPaymentCents(principal, rateBps, months);
+            long[][] schedule = new long[4][months];
+            long totalInterest = LoanCalculatorService.amortize(principal, rateBps, months, payment, schedule);
+
+            String context = principal + " @ " + rateBps + "bps x " + months;
+            assertEquals(expected[0], payment, context);
+            assertEquals(expected[1], totalInterest, context);
+            assertEquals(0, schedule[3][months - 1], context);
+        }
+    }
+
+    @Test
+    void testHalfCentPaymentRoundsUp() {
+        // 1.01 over 2 months at 0% is exactly 50.5 cents per month
+        assertEquals(51, LoanCalculatorService.monthlyPaymentCents(101, 0, 2));
+        assertEquals(LoanCalculatorService.monthlyPaymentCentsExact(12_345_678, 1, 1),
+                LoanCalculatorService.monthlyPaymentCents(12_345_678, 1, 1));
+    }
+
+    @Test
+    void testBatchPreservesOrderAndScheduleTotals() {
+        List<LoanQuoteRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            LoanQuoteRequest request = new LoanQuoteRequest();
+            request.setLoanType(LoanApplication.LoanType.values()[i % 5].name());
+            request.setAmount(BigDecimal.valueOf(100_000 + i * 37L, 2).add(BigDecimal.valueOf(1000)));
+            request.setTenureMonths(12 + i % 48);
+            request.setIncludeSchedule(true);
+            requests.add(request);
+        }
+
+        List<LoanQuoteResponse> responses = loanCalculatorService.quoteBatch(requests);
+
+        assertEquals(requests.size(), responses.size());
+        for (int i = 0; i < requests.size(); i++) {
+            LoanQuoteResponse response = responses.get(i);
+            assertEquals(requests.get(i).getAmount(), response.getAmount());
+            assertEquals(requests.get(i).getTenureMonths(), response.getSchedule().size());
+            BigDecimal principalPaid = response.getSchedule().stream()
+                    .map(LoanQuoteResponse.Installment::getPrincipal)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            assertEquals(response.getAmount(), principalPaid);
+            assertEquals(response.getTotalPayment(), response.getAmount().add(response.getTotalInterest()));
+        }
+    }
+
+    @Test
+    void testUnknownLoanTypeIsBadRequest() {
+        LoanQuoteRequest valid = new LoanQuoteRequest();
+        valid.setLoanType("auto_loan");
+        valid.setAmount(new BigDecimal("20000"));
+        LoanQuoteRequest unknown = new LoanQuoteRequest();
+        unknown.setLoanType("BOAT_LOAN");
+        unknown.setAmount(new BigDecimal("20000"));
+
+        assertEquals("AUTO_LOAN", loanCalculatorService.quote(valid).getLoanType());
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> loanCalculatorService.quote(unknown));
+        assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode());
+        e = assertThrows(ResponseStatusException.class,
+                () -> loanCalculatorService.quoteBatch(List.of(valid, unknown, valid)));
+        assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode());
+    }
+
+    // Straightforward BigDecimal amortization used as the cent-exact reference
+    private static long[] referenceSchedule(long principalCents, int rateBps, int months) {
+        BigDecimal principal = BigDecimal.valueOf(principalCents);
+        BigDecimal denominator = BigDecimal.valueOf(LoanCalculatorService.MONTHLY_RATE_DENOMINATOR);
+        BigDecimal payment;
+        if (rateBps == 0) {
+            payment = principal.divide(BigDecimal.valueOf(months), 0, RoundingMode.HALF_UP);
+        } else {
+            MathContext mc = MathContext.DECIMAL128;
+            BigDecimal rate = BigDecimal.valueOf(rateBps).divide(denominator, mc);
+            BigDecimal growth = BigDecimal.ONE.add(rate).pow(months, mc);
+            payment = principal.multiply(rate, mc).multiply(growth, mc)
+                    .divide(growth.subtract(BigDecimal.ONE), mc)
+                    .setScale(0, RoundingMode.HALF_UP);
+        }
+
+        BigDecimal balance = principal;
+        BigDecimal totalInterest = BigDecimal.ZERO;
+        for (int i = 0; i < months; i++) {
+            BigDecimal interest = balance.multiply(BigDecimal.valueOf(rateBps))
+                    .divide(denominator, 0, RoundingMode.HALF_UP);
+            BigDecimal principalPart = i == months - 1 ? balance : payment.subtract(interest).min(balance);
+            balance = balance.subtract(principalPart);
+            totalInterest = totalInterest.add(interest);
+        }
+        return new long[] { payment.longValueExact(), totalInterest.longValueExact() };
+    }
+}
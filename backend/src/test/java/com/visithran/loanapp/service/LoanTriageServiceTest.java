@@ -0,0 +1,169 @@
+package com.visithran.loanapp.service;
+
+import com.visithran.loanapp.config.LoanTriageProperties;
+import com.visithran.loanapp.entity.LoanApplication;
+import com.visithran.loanapp.entity.User;
+import com.visithran.loanapp.repository.ApplicantStatusCount;
+import com.visithran.loanapp.repository.LoanApplicationRepository;
+import com.visithran.loanapp.repository.TriageCandidate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class LoanTriageServiceTest {
+
+    private LoanApplicationRepository loanApplicationRepository;
+    private LoanTriageService loanTriageService;
+
+    @BeforeEach
+    void setUp() {
+        LoanTriageProperties properties = new LoanTriageProperties();
+        LoanTriageProperties.Limits limits = new LoanTriageProperties.Limits();
+        limits.setAutoApproveAmount(new BigDecimal("50000"));
+        limits.setAutoRejectAmount(new BigDecimal("1000000"));
+        properties.getLimits().put(LoanApplication.LoanType.PERSONAL_LOAN, limits);
+        properties.setBatchChunkSize(2);
+        properties.setBatchParallelism(2);
+
+        TriageRuleEngine triageRuleEngine = new TriageRuleEngine();
+        ReflectionTestUtils.setField(triageRuleEngine, "properties", properties);
+        triageRuleEngine.compile();
+
+        loanApplicationRepository = mock(LoanApplicationRepository.class);
+        loanTriageService = new LoanTriageService();
+        ReflectionTestUtils.setField(loanTriageService, "loanApplicationRepository", loanApplicationRepository);
+        ReflectionTestUtils.setField(loanTriageService, "triageRuleEngine", triageRuleEngine);
+        ReflectionTestUtils.setField(loanTriageService, "properties", properties);
+    }
+
+    @Test
+    void testTriageApprovesApplicantWithoutHistory() {
+        LoanApplication application = application(1L, "20000");
+
+        loanTriageService.triage(application);
+
+        assertEquals(LoanApplication.Status.APPROVED, application.getStatus());
+        assertEquals(1, application.getRiskScore());
+        assertEquals(LoanApplication.DecisionSource.TRIAGE_AUTO_APPROVE, application.getDecisionSource());
+    }
+
+    @Test
+    void testTriageCountsViewedAsOpenAndPriorRejections() {
+        List<ApplicantStatusCount> counts = List.of(
+                statusCount(1L, LoanApplication.Status.SUBMITTED, 1),
+                statusCount(1L, LoanApplication.Status.VIEWED, 1),
+                statusCount(1L, LoanApplication.Status.REJECTED, 1),
+                statusCount(1L, LoanApplication.Status.APPROVED, 4));
+        when(loanApplicationRepository.countStatusesByApplicantIds(Set.of(1L))).thenReturn(counts);
+        LoanApplication application = application(1L, "20000");
+
+        loanTriageService.triage(application);
+
+        // 1 for the amount, 2 open applications at 10, 1 rejection at 15
+        assertEquals(36, application.getRiskScore());
+        assertEquals(LoanApplication.Status.SUBMITTED, application.getStatus());
+        assertNull(application.getDecisionSource());
+    }
+
+    @Test
+    void testBacklogReadsChunksByKeyset() {
+        stubChunk(0L, candidate(1L, 10L, "20000", null), candidate(2L, 11L, "20000", null));
+        stubChunk(2L, candidate(3L, 12L, "20000", null), candidate(4L, 13L, "20000", null));
+        stubChunk(4L, candidate(5L, 14L, "20000", null));
+        when(loanApplicationRepository.updateTriageResult(anyLong(), any(), any(), any(), any(), any(), any())).thenReturn(1);
+
+        Map<String, Long> summary = loanTriageService.reevaluateSubmittedBacklog();
+
+        assertEquals(5L, summary.get("evaluated"));
+        assertEquals(5L, summary.get("approved"));
+        assertEquals(0L, summary.get("rejected"));
+        // A short chunk ends the scan without another query
+        verify(loanApplicationRepository, times(3)).findTriageCandidates(any(), anyLong(), any());
+        // Histories are loaded once per chunk, for that chunk's applicants only
+        verify(loanApplicationRepository).countStatusesByApplicantIds(Set.of(10L, 11L));
+        verify(loanApplicationRepository).countStatusesByApplicantIds(Set.of(12L, 13L));
+        verify(loanApplicationRepository).countStatusesByApplicantIds(Set.of(14L));
+    }
+
+    @Test
+    void testBacklogExcludesCandidateFromItsOwnHistory() {
+        stubChunk(0L, candidate(1L, 10L, "20000", null));
+        List<ApplicantStatusCount> counts = List.of(statusCount(10L, LoanApplication.Status.SUBMITTED, 3));
+        when(loanApplicationRepository.countStatusesByApplicantIds(Set.of(10L))).thenReturn(counts);
+        when(loanApplicationRepository.updateTriageResult(anyLong(), any(), any(), any(), any(), any(), any())).thenReturn(1);
+
+        Map<String, Long> summary = loanTriageService.reevaluateSubmittedBacklog();
+
+        // Two other open applications score 21; counting the candidate itself would score 31
+        assertEquals(1L, summary.get("approved"));
+        verify(loanApplicationRepository).updateTriageResult(eq(1L), eq(LoanApplication.Status.SUBMITTED),
+                eq(LoanApplication.Status.APPROVED), eq(21), isNull(), eq(LoanApplication.DecisionSource.TRIAGE_AUTO_APPROVE),
+                any());
+    }
+
+    @Test
+    void testBacklogSkipsUnchangedRowsAndCountsOnlyConditionalUpdates() {
+        stubChunk(0L, candidate(1L, 10L, "20000", null), candidate(2L, 11L, "2000000", null));
+        stubChunk(2L, candidate(3L, 12L, "100000", 5));
+        // Application 2 was decided by an admin after it was read
+        when(loanApplicationRepository.updateTriageResult(eq(1L), any(), any(), any(), any(), any(), any())).thenReturn(1);
+        when(loanApplicationRepository.updateTriageResult(eq(2L), any(), any(), any(), any(), any(), any())).thenReturn(0);
+
+        Map<String, Long> summary = loanTriageService.reevaluateSubmittedBacklog();
+
+        assertEquals(3L, summary.get("evaluated"));
+        assertEquals(1L, summary.get("approved"));
+        assertEquals(0L, summary.get("rejected"));
+        verify(loanApplicationRepository).updateTriageResult(eq(2L), eq(LoanApplication.Status.SUBMITTED),
+                eq(LoanApplication.Status.REJECTED), eq(50),
+                eq("Automatically rejected: amount exceeds the limit for PERSONAL_LOAN"),
+                eq(LoanApplication.DecisionSource.TRIAGE_AMOUNT_LIMIT), any());
+        // Application 3 stays SUBMITTED with the score it already has
+        verify(loanApplicationRepository, never()).updateTriageResult(eq(3L), any(), any(), any(), any(), any(), any());
+    }
+
+    private void stubChunk(Long afterId, TriageCandidate... candidates) {
+        when(loanApplicationRepository.findTriageCandidates(LoanApplication.Status.SUBMITTED, afterId, PageRequest.of(0, 2)))
+                .thenReturn(List.of(candidates));
+    }
+
+    private static LoanApplication application(Long applicantId, String amount) {
+        User applicant = new User();
+        applicant.setId(applicantId);
+        LoanApplication application = new LoanApplication();
+        application.setApplicant(applicant);
+        application.setLoanType(LoanApplication.LoanType.PERSONAL_LOAN);
+        application.setAmount(new BigDecimal(amount));
+        application.setSelectedBankBranch("Main Branch - Downtown");
+        return application;
+    }
+
+    private static TriageCandidate candidate(Long id, Long applicantId, String amount, Integer riskScore) {
+        TriageCandidate candidate = mock(TriageCandidate.class);
+        when(candidate.getId()).thenReturn(id);
+        when(candidate.getApplicantId()).thenReturn(applicantId);
+        when(candidate.getLoanType()).thenReturn(LoanApplication.LoanType.PERSONAL_LOAN);
+        when(candidate.getAmount()).thenReturn(new BigDecimal(amount));
+        when(candidate.getSelectedBankBranch()).thenReturn("Main Branch - Downtown");
+        when(candidate.getRiskScore()).thenReturn(riskScore);
+        return candidate;
+    }
+
+    private static ApplicantStatusCount statusCount(Long applicantId, LoanApplication.Status status, long count) {
+        ApplicantStatusCount statusCount = mock(ApplicantStatusCount.class);
+        when(statusCount.getApplicantId()).thenReturn(applicantId);
+        when(statusCount.getStatus()).thenReturn(status);
+        when(statusCount.getCount()).thenReturn(count);
+        return statusCount;
+    }
+}
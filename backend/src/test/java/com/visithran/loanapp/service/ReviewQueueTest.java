@@ -0,0 +1,296 @@
+package com.visithran.loanapp.service;
+
+import com.visithran.loanapp.dto.LoanApplicationResponse;
+import com.visithran.loanapp.dto.ReviewClaimResponse;
+import com.visithran.loanapp.dto.ReviewPriority;
+import com.visithran.loanapp.entity.LoanApplication;
+import com.visithran.loanapp.entity.User;
+import com.visithran.loanapp.repository.LoanApplicationRepository;
+import com.visithran.loanapp.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("h2")
+class ReviewQueueTest {
+
+    private static final String FIRST_ADMIN = "first.admin@example.com";
+    private static final String SECOND_ADMIN = "second.admin@example.com";
+
+    @Autowired
+    private LoanApplicationService loanApplicationService;
+
+    @Autowired
+    private LoanApplicationRepository loanApplicationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LoanTriageService loanTriageService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final List<Long> applicationIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        loanApplicationRepository.deleteAll();
+        userRepository.deleteAll();
+        applicationIds.clear();
+
+        createUser(FIRST_ADMIN, User.Role.ADMIN);
+        createUser(SECOND_ADMIN, User.Role.ADMIN);
+        User applicant = createUser("applicant@example.com", User.Role.APPLICANT);
+        String[] amounts = {"5000", "90000", "1500", "45000"};
+        for (String amount : amounts) {
+            LoanApplication application = new LoanApplication();
+            application.setApplicant(applicant);
+            application.setLoanType(LoanApplication.LoanType.AUTO_LOAN);
+            application.setAmount(new BigDecimal(amount));
+            application.setSelectedBankBranch("Main Branch - Downtown");
+            applicationIds.add(loanApplicationRepository.save(application).getId());
+        }
+    }
+
+    @Test
+    void testClaimLeasesApplicationsInPriorityOrder() {
+        LocalDateTime before = LocalDateTime.now();
+
+        ReviewClaimResponse oldest = loanApplicationService.claimReviews(FIRST_ADMIN, 2, ReviewPriority.OLDEST);
+        ReviewClaimResponse largest = loanApplicationService.claimReviews(SECOND_ADMIN, 1, ReviewPriority.LARGEST);
+
+        assertEquals(applicationIds.subList(0, 2), ids(oldest));
+        assertTrue(oldest.getLeaseExpiresAt().isAfter(before.plusMinutes(14)));
+        assertEquals(List.of(applicationIds.get(3)), ids(largest));
+        assertEquals(ids(oldest), ids(loanApplicationService.getClaimedReviews(FIRST_ADMIN)));
+    }
+
+    @Test
+    void testEmptyClaimHasNoLease() {
+        loanApplicationService.claimReviews(FIRST_ADMIN, 10, ReviewPriority.OLDEST);
+
+        ReviewClaimResponse empty = loanApplicationService.claimReviews(SECOND_ADMIN, 10, ReviewPriority.OLDEST);
+
+        assertTrue(empty.getApplications().isEmpty());
+        assertNull(empty.getLeaseExpiresAt());
+    }
+
+    @Test
+    void testClaimSkipsApplicationLockedByDecision() throws Exception {
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch claimed = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // Hold the row lock a decision takes until the claim has finished
+            Future<?> decision = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                loanApplicationRepository.findByIdForUpdate(applicationIds.get(0));
+                locked.countDown();
+                await(claimed);
+            }));
+            assertTrue(locked.await(10, TimeUnit.SECONDS));
+
+            ReviewClaimResponse claim = CompletableFuture
+                    .supplyAsync(() -> loanApplicationService.claimReviews(FIRST_ADMIN, 2, ReviewPriority.OLDEST))
+                    .get(10, TimeUnit.SECONDS);
+            claimed.countDown();
+            decision.get(10, TimeUnit.SECONDS);
+
+            assertEquals(applicationIds.subList(1, 3), ids(claim));
+        } finally {
+            claimed.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testClaimDoesNotWaitForAnotherClaim() throws Exception {
+        CountDownLatch firstClaimed = new CountDownLatch(1);
+        CountDownLatch secondDone = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // The first claim keeps its transaction, and so its row locks, open until the second finishes
+            Future<ReviewClaimResponse> first = executor.submit(() -> transactionTemplate.execute(status -> {
+                ReviewClaimResponse response = loanApplicationService.claimReviews(FIRST_ADMIN, 2, ReviewPriority.OLDEST);
+                firstClaimed.countDown();
+                await(secondDone);
+                return response;
+            }));
+            assertTrue(firstClaimed.await(10, TimeUnit.SECONDS));
+
+            // H2 locks every row it sorts, not just the ones returned, so the second claim
+            // may come back empty here; it must come back without the first claim's rows
+            ReviewClaimResponse second = CompletableFuture
+                    .supplyAsync(() -> loanApplicationService.claimReviews(SECOND_ADMIN, 4, ReviewPriority.OLDEST))
+                    .get(10, TimeUnit.SECONDS);
+            secondDone.countDown();
+
+            List<Long> firstIds = ids(first.get(10, TimeUnit.SECONDS));
+            assertEquals(applicationIds.subList(0, 2), firstIds);
+            assertTrue(ids(second).stream().noneMatch(firstIds::contains));
+        } finally {
+            secondDone.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testConcurrentClaimsNeverShareAnApplication() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<ReviewClaimResponse>> claims = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                String admin = i % 2 == 0 ? FIRST_ADMIN : SECOND_ADMIN;
+                claims.add(executor.submit(() -> loanApplicationService.claimReviews(admin, 1, ReviewPriority.OLDEST)));
+            }
+
+            List<Long> claimed = new ArrayList<>();
+            for (Future<ReviewClaimResponse> claim : claims) {
+                claimed.addAll(ids(claim.get(10, TimeUnit.SECONDS)));
+            }
+            Set<Long> distinct = new HashSet<>(claimed);
+            assertEquals(claimed.size(), distinct.size());
+            assertTrue(applicationIds.containsAll(distinct));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testExpiredLeaseReturnsApplicationToQueue() {
+        loanApplicationService.claimReviews(FIRST_ADMIN, 1, ReviewPriority.OLDEST);
+        expireLease(applicationIds.get(0));
+
+        ReviewClaimResponse reclaimed = loanApplicationService.claimReviews(SECOND_ADMIN, 1, ReviewPriority.OLDEST);
+
+        assertEquals(List.of(applicationIds.get(0)), ids(reclaimed));
+        assertTrue(loanApplicationService.getClaimedReviews(FIRST_ADMIN).getApplications().isEmpty());
+        assertNull(loanApplicationService.getClaimedReviews(FIRST_ADMIN).getLeaseExpiresAt());
+    }
+
+    @Test
+    void testRenewExtendsOnlyLiveLeases() {
+        loanApplicationService.claimReviews(FIRST_ADMIN, 2, ReviewPriority.OLDEST);
+        expireLease(applicationIds.get(0));
+        LocalDateTime before = loanApplicationRepository.findById(applicationIds.get(1)).orElseThrow()
+                .getReviewLeaseExpiresAt();
+
+        ReviewClaimResponse renewed = loanApplicationService.renewReviews(FIRST_ADMIN);
+
+        assertEquals(List.of(applicationIds.get(1)), ids(renewed));
+        assertFalse(renewed.getLeaseExpiresAt().isBefore(before));
+        assertTrue(loanApplicationRepository.findById(applicationIds.get(0)).orElseThrow()
+                .getReviewLeaseExpiresAt().isBefore(LocalDateTime.now()));
+    }
+
+    @Test
+    void testReleaseReturnsOnlyTheHoldersApplications() {
+        loanApplicationService.claimReviews(FIRST_ADMIN, 2, ReviewPriority.OLDEST);
+
+        assertEquals(0, loanApplicationService.releaseReviews(SECOND_ADMIN, List.of(applicationIds.get(0))));
+        assertEquals(1, loanApplicationService.releaseReviews(FIRST_ADMIN, List.of(applicationIds.get(0))));
+        assertEquals(List.of(applicationIds.get(0), applicationIds.get(2)),
+                ids(loanApplicationService.claimReviews(SECOND_ADMIN, 2, ReviewPriority.OLDEST)));
+
+        assertEquals(1, loanApplicationService.releaseReviews(FIRST_ADMIN, null));
+        assertTrue(loanApplicationService.getClaimedReviews(FIRST_ADMIN).getApplications().isEmpty());
+    }
+
+    @Test
+    void testOnlyLeaseHolderCanDecide() {
+        loanApplicationService.claimReviews(FIRST_ADMIN, 1, ReviewPriority.OLDEST);
+        Long id = applicationIds.get(0);
+
+        assertConflict(() -> loanApplicationService.approveLoan(id, SECOND_ADMIN));
+        assertConflict(() -> loanApplicationService.rejectLoan(id, "Incomplete", null));
+        assertConflict(() -> loanApplicationService.markAsViewed(id, SECOND_ADMIN));
+
+        assertEquals("VIEWED", loanApplicationService.markAsViewed(id, FIRST_ADMIN).getStatus());
+        LoanApplicationResponse approved = loanApplicationService.approveLoan(id, FIRST_ADMIN);
+
+        assertEquals("APPROVED", approved.getStatus());
+        assertEquals("ADMIN", approved.getDecisionSource());
+        assertNull(loanApplicationRepository.findById(id).orElseThrow().getReviewerId());
+    }
+
+    @Test
+    void testAnyoneCanDecideOnceLeaseExpires() {
+        loanApplicationService.claimReviews(FIRST_ADMIN, 1, ReviewPriority.OLDEST);
+        expireLease(applicationIds.get(0));
+
+        assertEquals("REJECTED", loanApplicationService.rejectLoan(applicationIds.get(0), "Incomplete", null).getStatus());
+        assertEquals("APPROVED", loanApplicationService.approveLoan(applicationIds.get(1), SECOND_ADMIN).getStatus());
+    }
+
+    @Test
+    void testBacklogReevaluationSkipsLiveLeases() {
+        loanApplicationService.claimReviews(FIRST_ADMIN, 2, ReviewPriority.OLDEST);
+        expireLease(applicationIds.get(1));
+
+        loanTriageService.reevaluateSubmittedBacklog();
+
+        // The seeded applications have no risk score, so every row the re-evaluation touched has one now
+        LoanApplication leased = loanApplicationRepository.findById(applicationIds.get(0)).orElseThrow();
+        assertNull(leased.getRiskScore());
+        assertEquals(LoanApplication.Status.SUBMITTED, leased.getStatus());
+        for (Long id : applicationIds.subList(1, 4)) {
+            assertNotNull(loanApplicationRepository.findById(id).orElseThrow().getRiskScore());
+        }
+    }
+
+    private User createUser(String email, User.Role role) {
+        User user = new User();
+        user.setName("Test User");
+        user.setEmail(email);
+        user.setRole(role);
+        return userRepository.save(user);
+    }
+
+    private void expireLease(Long id) {
+        LoanApplication application = loanApplicationRepository.findById(id).orElseThrow();
+        application.setReviewLeaseExpiresAt(LocalDateTime.now().minusSeconds(1));
+        loanApplicationRepository.save(application);
+    }
+
+    private static List<Long> ids(ReviewClaimResponse response) {
+        return response.getApplications().stream()
+                .map(LoanApplicationResponse::getId)
+                .collect(Collectors.toList());
+    }
+
+    private static void assertConflict(Runnable decision) {
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, decision::run);
+        assertEquals(HttpStatus.CONFLICT, e.getStatusCode());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.visithran.loanapp.service;
+
+import com.visithran.loanapp.config.LoanTriageProperties;
+import com.visithran.loanapp.entity.LoanApplication;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TriageRuleEngineTest {
+
+    private TriageRuleEngine triageRuleEngine;
+
+    @BeforeEach
+    void setUp() {
+        LoanTriageProperties properties = new LoanTriageProperties();
+        LoanTriageProperties.Limits limits = new LoanTriageProperties.Limits();
+        limits.setAutoApproveAmount(new BigDecimal("50000"));
+        limits.setAutoRejectAmount(new BigDecimal("1000000"));
+        properties.getLimits().put(LoanApplication.LoanType.PERSONAL_LOAN, limits);
+        properties.getBranchRisk().put("North Branch", 40);
+
+        triageRuleEngine = new TriageRuleEngine();
+        ReflectionTestUtils.setField(triageRuleEngine, "properties", properties);
+        triageRuleEngine.compile();
+    }
+
+    @Test
+    void testSmallLoanWithCleanHistoryIsApproved() {
+        TriageRuleEngine.Decision decision = evaluate(LoanApplication.LoanType.PERSONAL_LOAN, "20000",
+                "Main Branch - Downtown", new TriageRuleEngine.ApplicantHistory());
+
+        assertEquals(LoanApplication.Status.APPROVED, decision.getStatus());
+        assertEquals(1, decision.getRiskScore());
+        assertEquals(LoanApplication.DecisionSource.TRIAGE_AUTO_APPROVE, decision.getSource());
+    }
+
+    @Test
+    void testAmountAboveRejectLimitIsRejected() {
+        TriageRuleEngine.Decision decision = evaluate(LoanApplication.LoanType.PERSONAL_LOAN, "1000000.01",
+                "Main Branch - Downtown", new TriageRuleEngine.ApplicantHistory());
+
+        assertEquals(LoanApplication.Status.REJECTED, decision.getStatus());
+        assertNotNull(decision.getRejectionReason());
+        assertEquals(LoanApplication.DecisionSource.TRIAGE_AMOUNT_LIMIT, decision.getSource());
+    }
+
+    @Test
+    void testHistoryAndBranchRiskKeepApplicationForReview() {
+        TriageRuleEngine.Decision decision = evaluate(LoanApplication.LoanType.PERSONAL_LOAN, "20000",
+                "North Branch", new TriageRuleEngine.ApplicantHistory(1, 1));
+
+        assertEquals(LoanApplication.Status.SUBMITTED, decision.getStatus());
+        assertEquals(66, decision.getRiskScore());
+        assertNull(decision.getSource());
+    }
+
+    @Test
+    void testUnconfiguredLoanTypeIsNeverAutoDecided() {
+        TriageRuleEngine.Decision decision = evaluate(LoanApplication.LoanType.HOUSE_LOAN, "100",
+                "Main Branch - Downtown", new TriageRuleEngine.ApplicantHistory());
+
+        assertEquals(LoanApplication.Status.SUBMITTED, decision.getStatus());
+        assertEquals(0, decision.getRiskScore());
+    }
+
+    private TriageRuleEngine.Decision evaluate(LoanApplication.LoanType loanType, String amount, String branch,
+                                               TriageRuleEngine.ApplicantHistory history) {
+        return triageRuleEngine.evaluate(loanType, new BigDecimal(amount), branch, history);
+    }
+}
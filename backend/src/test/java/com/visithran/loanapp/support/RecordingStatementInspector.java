@@ -0,0 +1,27 @@
+package com.visithran.loanapp.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Keeps the SQL Hibernate prepares on the current thread, so a test can check
+// which tables a query touched
+public class RecordingStatementInspector implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> STATEMENTS = ThreadLocal.withInitial(ArrayList::new);
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.get().add(sql);
+        return sql;
+    }
+
+    public static void clear() {
+        STATEMENTS.get().clear();
+    }
+
+    public static List<String> statements() {
+        return List.copyOf(STATEMENTS.get());
+    }
+}
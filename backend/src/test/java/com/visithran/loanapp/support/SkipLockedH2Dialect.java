@@ -0,0 +1,23 @@
+package com.visithran.loanapp.support;
+
+import org.hibernate.dialect.H2Dialect;
+
+// H2 executes FOR UPDATE SKIP LOCKED, but Hibernate's H2Dialect renders a plain
+// FOR UPDATE for it. The review queue relies on skipped rows, as on MySQL 8.
+public class SkipLockedH2Dialect extends H2Dialect {
+
+    @Override
+    public boolean supportsSkipLocked() {
+        return true;
+    }
+
+    @Override
+    public String getForUpdateSkipLockedString() {
+        return " for update skip locked";
+    }
+
+    @Override
+    public String getForUpdateSkipLockedString(String aliases) {
+        return getForUpdateSkipLockedString();
+    }
+}
@@ -49,7 +49,11 @@ export interface LoanApplication {
   amount: number;
   description?: string;
   selectedBankBranch: string;
+  bankBranchId?: number;
   status: keyof LoanStatus;
+  rejectionReason?: string;
+  riskScore?: number;
+  decisionSource?: 'ADMIN' | 'TRIAGE_AMOUNT_LIMIT' | 'TRIAGE_RISK_SCORE' | 'TRIAGE_AUTO_APPROVE';
   createdAt: string;
 }
 